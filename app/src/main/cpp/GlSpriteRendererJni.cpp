@@ -0,0 +1,65 @@
+#include <jni.h>
+#include <android/native_window_jni.h>
+
+#include "AndroidOut.h"
+#include "Renderer.h"
+#include "SpriteBatch.h"
+
+/*
+ * Native side of com.example.pulseblocks.GlSpriteRenderer. All calls come from the Java game
+ * thread, which owns the EGL context for as long as the handle lives.
+ */
+extern "C" {
+
+JNIEXPORT jlong JNICALL
+Java_com_example_pulseblocks_GlSpriteRenderer_nativeCreate(
+        JNIEnv *env,
+        jclass,
+        jobject surface,
+        jint capacityPerLayer) {
+    ANativeWindow *window = ANativeWindow_fromSurface(env, surface);
+    if (!window) {
+        return 0;
+    }
+
+    // The renderer takes ownership of the window
+    auto *renderer = new Renderer(window, capacityPerLayer);
+    if (!renderer->hasSpriteBatch()) {
+        aout << "Could not create the sprite renderer" << std::endl;
+        delete renderer;
+        return 0;
+    }
+    return reinterpret_cast<jlong>(renderer);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_com_example_pulseblocks_GlSpriteRenderer_nativeDrawFrame(
+        JNIEnv *env,
+        jclass,
+        jlong handle,
+        jobject instances,
+        jint backgroundCount,
+        jint blockCount,
+        jint effectCount,
+        jint clearColor) {
+    auto *renderer = reinterpret_cast<Renderer *>(handle);
+    auto *data = static_cast<const uint8_t *>(env->GetDirectBufferAddress(instances));
+    if (!renderer || !data) {
+        return JNI_FALSE;
+    }
+
+    int32_t layerCounts[SpriteBatch::kLayerCount];
+    layerCounts[SpriteBatch::kLayerBackground] = backgroundCount;
+    layerCounts[SpriteBatch::kLayerBlocks] = blockCount;
+    layerCounts[SpriteBatch::kLayerEffects] = effectCount;
+
+    return renderer->renderSprites(data, layerCounts, static_cast<uint32_t>(clearColor))
+           ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT void JNICALL
+Java_com_example_pulseblocks_GlSpriteRenderer_nativeDestroy(JNIEnv *, jclass, jlong handle) {
+    delete reinterpret_cast<Renderer *>(handle);
+}
+
+}
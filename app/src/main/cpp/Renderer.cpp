@@ -2,6 +2,7 @@
 
 #include <game-activity/native_app_glue/android_native_app_glue.h>
 #include <GLES3/gl3.h>
+#include <android/native_window.h>
 #include <memory>
 #include <vector>
 #include <android/imagedecoder.h>
@@ -85,6 +86,9 @@ static constexpr float kProjectionNearPlane = -1.f;
 static constexpr float kProjectionFarPlane = 1.f;
 
 Renderer::~Renderer() {
+    // GL objects have to go while the context is still current
+    spriteBatch_.reset();
+
     if (display_ != EGL_NO_DISPLAY) {
         eglMakeCurrent(display_, EGL_NO_SURFACE, EGL_NO_SURFACE, EGL_NO_CONTEXT);
         if (context_ != EGL_NO_CONTEXT) {
@@ -98,6 +102,12 @@ Renderer::~Renderer() {
         eglTerminate(display_);
         display_ = EGL_NO_DISPLAY;
     }
+
+    // A window handed over from Java is owned by this renderer
+    if (!app_ && window_) {
+        ANativeWindow_release(window_);
+        window_ = nullptr;
+    }
 }
 
 void Renderer::render() {
@@ -147,7 +157,37 @@ void Renderer::render() {
     assert(swapResult == EGL_TRUE);
 }
 
+bool Renderer::renderSprites(
+        const uint8_t *instances,
+        const int32_t *layerCounts,
+        uint32_t clearColor) {
+    updateRenderArea();
+
+    // The sprite shader works in pixels, so it only needs the size of the render area
+    if (shaderNeedsNewProjectionMatrix_) {
+        spriteBatch_->setViewport(width_, height_);
+        shaderNeedsNewProjectionMatrix_ = false;
+    }
+
+    glClearColor(
+            ((clearColor >> 16) & 0xFF) / 255.f,
+            ((clearColor >> 8) & 0xFF) / 255.f,
+            (clearColor & 0xFF) / 255.f,
+            1.f);
+    glClear(GL_COLOR_BUFFER_BIT);
+
+    spriteBatch_->draw(instances, layerCounts);
+
+    // Present the rendered image. Fails if Java destroyed the surface under us.
+    return eglSwapBuffers(display_, surface_) == EGL_TRUE;
+}
+
 void Renderer::initRenderer() {
+    // GameActivity provides its own window, Java hands one over in the constructor
+    if (app_) {
+        window_ = app_->window;
+    }
+
     // Choose your render attributes
     constexpr EGLint attribs[] = {
             EGL_RENDERABLE_TYPE, EGL_OPENGL_ES3_BIT,
@@ -166,6 +206,12 @@ void Renderer::initRenderer() {
     // figure out how many configs there are
     EGLint numConfigs;
     eglChooseConfig(display, attribs, nullptr, 0, &numConfigs);
+    if (numConfigs <= 0) {
+        // No sprite batch gets created, so Java falls back to its Canvas path
+        aout << "No suitable EGL config" << std::endl;
+        display_ = display;
+        return;
+    }
 
     // get the list of configurations
     std::unique_ptr<EGLConfig[]> supportedConfigs(new EGLConfig[numConfigs]);
@@ -197,7 +243,7 @@ void Renderer::initRenderer() {
     // create the proper window surface
     EGLint format;
     eglGetConfigAttrib(display, config, EGL_NATIVE_VISUAL_ID, &format);
-    EGLSurface surface = eglCreateWindowSurface(display, config, app_->window, nullptr);
+    EGLSurface surface = eglCreateWindowSurface(display, config, window_, nullptr);
 
     // Create a GLES 3 context
     EGLint contextAttribs[] = {EGL_CONTEXT_CLIENT_VERSION, 3, EGL_NONE};
@@ -205,7 +251,7 @@ void Renderer::initRenderer() {
 
     // get some window metrics
     auto madeCurrent = eglMakeCurrent(display, surface, surface, context);
-    assert(madeCurrent);
+    assert(madeCurrent || !app_);
 
     display_ = display;
     surface_ = surface;
@@ -220,6 +266,21 @@ void Renderer::initRenderer() {
     PRINT_GL_STRING(GL_VERSION);
     PRINT_GL_STRING_AS_LIST(GL_EXTENSIONS);
 
+    // setup any other gl related global states
+    glClearColor(CORNFLOWER_BLUE);
+
+    // enable alpha globally for now, you probably don't want to do this in a game
+    glEnable(GL_BLEND);
+    glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+
+    // A window from Java only draws the game's sprites
+    if (!app_) {
+        if (surface != EGL_NO_SURFACE && context != EGL_NO_CONTEXT && madeCurrent) {
+            spriteBatch_ = SpriteBatch::create(spriteCapacity_);
+        }
+        return;
+    }
+
     shader_ = std::unique_ptr<Shader>(
             Shader::loadShader(vertex, fragment, "inPosition", "inUV", "uProjection"));
     assert(shader_);
@@ -228,13 +289,6 @@ void Renderer::initRenderer() {
     // you'll want to track the active shader and activate/deactivate it as necessary
     shader_->activate();
 
-    // setup any other gl related global states
-    glClearColor(CORNFLOWER_BLUE);
-
-    // enable alpha globally for now, you probably don't want to do this in a game
-    glEnable(GL_BLEND);
-    glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-
     // get some demo models into memory
     createModels();
 }
@@ -6,8 +6,10 @@
 
 #include "Model.h"
 #include "Shader.h"
+#include "SpriteBatch.h"
 
 struct android_app;
+struct ANativeWindow;
 
 class Renderer {
 public:
@@ -16,6 +18,28 @@ public:
      */
     inline Renderer(android_app *pApp) :
             app_(pApp),
+            window_(nullptr),
+            spriteCapacity_(0),
+            display_(EGL_NO_DISPLAY),
+            surface_(EGL_NO_SURFACE),
+            context_(EGL_NO_CONTEXT),
+            width_(0),
+            height_(0),
+            shaderNeedsNewProjectionMatrix_(true) {
+        initRenderer();
+    }
+
+    /*!
+     * Creates a renderer for a window owned by Java (the game's SurfaceView). Instead of the demo
+     * models it draws the sprite instances sent through @a renderSprites.
+     *
+     * @param window the window to render into, released when the renderer is destroyed
+     * @param spriteCapacity maximum number of instances in each layer of the sprite buffer
+     */
+    inline Renderer(ANativeWindow *window, int spriteCapacity) :
+            app_(nullptr),
+            window_(window),
+            spriteCapacity_(spriteCapacity),
             display_(EGL_NO_DISPLAY),
             surface_(EGL_NO_SURFACE),
             context_(EGL_NO_CONTEXT),
@@ -27,6 +51,11 @@ public:
 
     virtual ~Renderer();
 
+    /*!
+     * @return true if the sprite batch could be created for this window
+     */
+    inline bool hasSpriteBatch() const { return spriteBatch_ != nullptr; }
+
     /*!
      * Handles input from the android_app.
      *
@@ -39,6 +68,16 @@ public:
      */
     void render();
 
+    /*!
+     * Clears to @a clearColor, draws one frame of sprite instances and presents it
+     *
+     * @param instances the instance buffer, laid out as described in SpriteBatch
+     * @param layerCounts number of instances written in each layer
+     * @param clearColor background color as ARGB
+     * @return false if the frame could not be presented (the surface is gone)
+     */
+    bool renderSprites(const uint8_t *instances, const int32_t *layerCounts, uint32_t clearColor);
+
 private:
     /*!
      * Performs necessary OpenGL initialization. Customize this if you want to change your EGL
@@ -59,6 +98,8 @@ private:
     void createModels();
 
     android_app *app_;
+    ANativeWindow *window_;
+    int spriteCapacity_;
     EGLDisplay display_;
     EGLSurface surface_;
     EGLContext context_;
@@ -69,6 +110,7 @@ private:
 
     std::unique_ptr<Shader> shader_;
     std::vector<Model> models_;
+    std::unique_ptr<SpriteBatch> spriteBatch_;
 };
 
 #endif //ANDROIDGLINVESTIGATIONS_RENDERER_H
\ No newline at end of file
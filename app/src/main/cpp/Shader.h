@@ -63,15 +63,16 @@ public:
      */
     void setProjectionMatrix(float *projectionMatrix) const;
 
-private:
     /*!
-     * Helper function to load a shader of a given type
+     * Helper function to load a shader of a given type. Also used by SpriteBatch, which links
+     * its own program
      * @param shaderType The OpenGL shader type. Should either be GL_VERTEX_SHADER or GL_FRAGMENT_SHADER
      * @param shaderSource The full source of the shader
      * @return the id of the shader, as returned by glCreateShader, or 0 in the case of an error
      */
     static GLuint loadShader(GLenum shaderType, const std::string &shaderSource);
 
+private:
     /*!
      * Constructs a new instance of a shader. Use @a loadShader
      * @param program the GL program id of the shader
@@ -0,0 +1,275 @@
+#include "SpriteBatch.h"
+
+#include <algorithm>
+#include <cmath>
+#include <vector>
+
+#include "AndroidOut.h"
+#include "Shader.h"
+#include "Utility.h"
+
+// Attribute locations, fixed with layout= so the vertex array can be set up without lookups
+static constexpr GLuint kCornerAttribute = 0;
+static constexpr GLuint kInstanceAttribute = 1;
+static constexpr GLuint kColorAttribute = 2;
+static constexpr GLuint kRotationAttribute = 3;
+
+//! Offsets inside an instance: rotation after center and size, packed color after the five floats
+static constexpr size_t kRotationOffset = 4 * sizeof(float);
+static constexpr size_t kColorOffset = 5 * sizeof(float);
+
+//! Edge in pixels of the generated textures
+static constexpr int kTextureSize = 64;
+
+static const char *spriteVertex = R"vertex(#version 300 es
+layout(location = 0) in vec2 inCorner;   // unit quad, -0.5..0.5
+layout(location = 1) in vec4 inInstance; // center x, center y, width, height
+layout(location = 2) in vec4 inColor;    // ARGB int read as bytes: b, g, r, a
+layout(location = 3) in float inRotation; // degrees
+
+out vec2 fragUV;
+out vec4 fragColor;
+
+uniform vec2 uViewport;
+
+void main() {
+    float angle = radians(inRotation);
+    float c = cos(angle);
+    float s = sin(angle);
+    vec2 local = inCorner * inInstance.zw;
+    vec2 position = vec2(local.x * c - local.y * s, local.x * s + local.y * c) + inInstance.xy;
+
+    fragUV = inCorner + 0.5;
+    fragColor = inColor.zyxw;
+
+    // Pixels with y down to clip space
+    gl_Position = vec4(
+            position.x / uViewport.x * 2.0 - 1.0,
+            1.0 - position.y / uViewport.y * 2.0,
+            0.0,
+            1.0);
+}
+)vertex";
+
+static const char *spriteFragment = R"fragment(#version 300 es
+precision mediump float;
+
+in vec2 fragUV;
+in vec4 fragColor;
+
+uniform sampler2D uTexture;
+
+out vec4 outColor;
+
+void main() {
+    vec4 texel = texture(uTexture, fragUV);
+    outColor = vec4(fragColor.rgb * texel.rgb, fragColor.a * texel.a);
+}
+)fragment";
+
+std::unique_ptr<SpriteBatch> SpriteBatch::create(int capacityPerLayer) {
+    GLuint vertexShader = Shader::loadShader(GL_VERTEX_SHADER, spriteVertex);
+    if (!vertexShader) {
+        return nullptr;
+    }
+
+    GLuint fragmentShader = Shader::loadShader(GL_FRAGMENT_SHADER, spriteFragment);
+    if (!fragmentShader) {
+        glDeleteShader(vertexShader);
+        return nullptr;
+    }
+
+    GLuint program = glCreateProgram();
+    glAttachShader(program, vertexShader);
+    glAttachShader(program, fragmentShader);
+    glLinkProgram(program);
+
+    // The shaders are no longer needed once the program is linked
+    glDeleteShader(vertexShader);
+    glDeleteShader(fragmentShader);
+
+    GLint linkStatus = GL_FALSE;
+    glGetProgramiv(program, GL_LINK_STATUS, &linkStatus);
+    if (linkStatus != GL_TRUE) {
+        aout << "Failed to link the sprite program" << std::endl;
+        glDeleteProgram(program);
+        return nullptr;
+    }
+
+    GLint viewportUniform = glGetUniformLocation(program, "uViewport");
+    if (viewportUniform == -1) {
+        glDeleteProgram(program);
+        return nullptr;
+    }
+
+    return std::unique_ptr<SpriteBatch>(
+            new SpriteBatch(program, viewportUniform, capacityPerLayer));
+}
+
+SpriteBatch::SpriteBatch(GLuint program, GLint viewportUniform, int capacityPerLayer)
+        : program_(program),
+          viewportUniform_(viewportUniform),
+          capacityPerLayer_(capacityPerLayer),
+          vertexArray_(0),
+          quadBuffer_(0),
+          instanceBuffer_(0) {
+    // A unit quad drawn as a triangle strip, shared by every instance
+    static const float quad[] = {
+            -0.5f, -0.5f,
+            0.5f, -0.5f,
+            -0.5f, 0.5f,
+            0.5f, 0.5f
+    };
+
+    glGenVertexArrays(1, &vertexArray_);
+    glBindVertexArray(vertexArray_);
+
+    glGenBuffers(1, &quadBuffer_);
+    glBindBuffer(GL_ARRAY_BUFFER, quadBuffer_);
+    glBufferData(GL_ARRAY_BUFFER, sizeof(quad), quad, GL_STATIC_DRAW);
+    glVertexAttribPointer(kCornerAttribute, 2, GL_FLOAT, GL_FALSE, 2 * sizeof(float), nullptr);
+    glEnableVertexAttribArray(kCornerAttribute);
+
+    // Per instance attributes; their offset is set for each layer when drawing
+    glGenBuffers(1, &instanceBuffer_);
+    glBindBuffer(GL_ARRAY_BUFFER, instanceBuffer_);
+    glBufferData(GL_ARRAY_BUFFER,
+                 kLayerCount * capacityPerLayer_ * kBytesPerInstance,
+                 nullptr,
+                 GL_STREAM_DRAW);
+    glEnableVertexAttribArray(kInstanceAttribute);
+    glVertexAttribDivisor(kInstanceAttribute, 1);
+    glEnableVertexAttribArray(kColorAttribute);
+    glVertexAttribDivisor(kColorAttribute, 1);
+    glEnableVertexAttribArray(kRotationAttribute);
+    glVertexAttribDivisor(kRotationAttribute, 1);
+
+    glBindVertexArray(0);
+    glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+    blockTexture_ = createBlockTexture(kTextureSize);
+    glowTexture_ = createGlowTexture(kTextureSize);
+
+    // The sampler always reads from texture unit 0
+    glUseProgram(program_);
+    glUniform1i(glGetUniformLocation(program_, "uTexture"), 0);
+}
+
+SpriteBatch::~SpriteBatch() {
+    glDeleteBuffers(1, &instanceBuffer_);
+    glDeleteBuffers(1, &quadBuffer_);
+    glDeleteVertexArrays(1, &vertexArray_);
+    glDeleteProgram(program_);
+}
+
+void SpriteBatch::setViewport(int width, int height) const {
+    glUseProgram(program_);
+    glUniform2f(viewportUniform_, float(width), float(height));
+}
+
+void SpriteBatch::draw(const uint8_t *instances, const int32_t *layerCounts) const {
+    const size_t layerBytes = capacityPerLayer_ * kBytesPerInstance;
+
+    glUseProgram(program_);
+    glBindVertexArray(vertexArray_);
+    glBindBuffer(GL_ARRAY_BUFFER, instanceBuffer_);
+
+    // Orphan last frame's storage so the driver doesn't stall on it, then upload only the part of
+    // each layer that was written
+    glBufferData(GL_ARRAY_BUFFER, kLayerCount * layerBytes, nullptr, GL_STREAM_DRAW);
+    for (int layer = 0; layer < kLayerCount; layer++) {
+        int count = std::min(layerCounts[layer], capacityPerLayer_);
+        if (count > 0) {
+            glBufferSubData(GL_ARRAY_BUFFER,
+                            layer * layerBytes,
+                            count * kBytesPerInstance,
+                            instances + layer * layerBytes);
+        }
+    }
+
+    glActiveTexture(GL_TEXTURE0);
+    for (int layer = 0; layer < kLayerCount; layer++) {
+        int count = std::min(layerCounts[layer], capacityPerLayer_);
+        if (count <= 0) {
+            continue;
+        }
+
+        const TextureAsset &texture = layer == kLayerBlocks ? *blockTexture_ : *glowTexture_;
+        glBindTexture(GL_TEXTURE_2D, texture.getTextureID());
+
+        auto base = layer * layerBytes;
+        glVertexAttribPointer(
+                kInstanceAttribute,
+                4,
+                GL_FLOAT,
+                GL_FALSE,
+                kBytesPerInstance,
+                reinterpret_cast<const void *>(base));
+        glVertexAttribPointer(
+                kColorAttribute,
+                4,
+                GL_UNSIGNED_BYTE,
+                GL_TRUE, // bytes to 0..1
+                kBytesPerInstance,
+                reinterpret_cast<const void *>(base + kColorOffset));
+        glVertexAttribPointer(
+                kRotationAttribute,
+                1,
+                GL_FLOAT,
+                GL_FALSE,
+                kBytesPerInstance,
+                reinterpret_cast<const void *>(base + kRotationOffset));
+
+        // One call for the whole layer
+        glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, 4, count);
+    }
+
+    glBindVertexArray(0);
+    glBindBuffer(GL_ARRAY_BUFFER, 0);
+}
+
+std::shared_ptr<TextureAsset> SpriteBatch::createBlockTexture(int size) {
+    std::vector<uint8_t> pixels(size * size * 4);
+    const float radius = size * 0.12f; // Rounded corners
+    const float half = size / 2.f;
+
+    for (int y = 0; y < size; y++) {
+        for (int x = 0; x < size; x++) {
+            // Signed distance to a rounded square, negative inside
+            float px = std::fabs(x + 0.5f - half) - (half - radius - 1.f);
+            float py = std::fabs(y + 0.5f - half) - (half - radius - 1.f);
+            float outside = std::hypot(std::max(px, 0.f), std::max(py, 0.f));
+            float distance = outside + std::min(std::max(px, py), 0.f) - radius;
+
+            float alpha = std::min(std::max(0.5f - distance, 0.f), 1.f);
+
+            // Brighter rim, slightly darker core
+            float rim = std::min(std::max(1.f + distance / (size * 0.1f), 0.f), 1.f);
+            float shade = 0.8f + 0.2f * rim;
+
+            uint8_t *pixel = &pixels[(y * size + x) * 4];
+            pixel[0] = pixel[1] = pixel[2] = uint8_t(shade * 255);
+            pixel[3] = uint8_t(alpha * 255);
+        }
+    }
+    return TextureAsset::createFromPixels(size, size, pixels);
+}
+
+std::shared_ptr<TextureAsset> SpriteBatch::createGlowTexture(int size) {
+    std::vector<uint8_t> pixels(size * size * 4);
+    const float half = size / 2.f;
+
+    for (int y = 0; y < size; y++) {
+        for (int x = 0; x < size; x++) {
+            float r = std::hypot(x + 0.5f - half, y + 0.5f - half) / half;
+
+            // Solid core with a soft edge, like the drawCircle it replaces
+            float alpha = std::min(std::max((1.f - r) * 4.f, 0.f), 1.f);
+
+            uint8_t *pixel = &pixels[(y * size + x) * 4];
+            pixel[0] = pixel[1] = pixel[2] = 255;
+            pixel[3] = uint8_t(alpha * 255);
+        }
+    }
+    return TextureAsset::createFromPixels(size, size, pixels);
+}
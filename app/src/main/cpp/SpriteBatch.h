@@ -0,0 +1,81 @@
+#ifndef ANDROIDGLINVESTIGATIONS_SPRITEBATCH_H
+#define ANDROIDGLINVESTIGATIONS_SPRITEBATCH_H
+
+#include <GLES3/gl3.h>
+#include <cstdint>
+#include <memory>
+
+#include "TextureAsset.h"
+
+/*!
+ * Instanced sprite renderer fed by the Java simulation (see GlSpriteRenderer.java).
+ *
+ * Every frame Java fills a direct ByteBuffer split into kLayerCount fixed-size layers. Each
+ * instance is kBytesPerInstance bytes: center x, center y, width, height and rotation in degrees
+ * as floats (pixels, y down) followed by the color as a packed ARGB int in native (little-endian)
+ * order. Lines are sent as long thin instances rotated along the segment.
+ * Each layer uses a single texture and is drawn with one glDrawArraysInstanced call over a shared
+ * unit quad, so the draw call count does not grow with the number of blocks or particles.
+ */
+class SpriteBatch {
+public:
+    //! Stars, under everything (glow texture)
+    static constexpr int kLayerBackground = 0;
+    //! Blocks and the ship (block texture)
+    static constexpr int kLayerBlocks = 1;
+    //! Particles and effects, over the blocks (glow texture)
+    static constexpr int kLayerEffects = 2;
+    static constexpr int kLayerCount = 3;
+
+    static constexpr size_t kBytesPerInstance = 24;
+
+    /*!
+     * Compiles the program and creates the buffers and textures. Must be called with a current GL
+     * context.
+     *
+     * @param capacityPerLayer maximum number of instances in each layer of the Java buffer
+     * @return the batch, or null if the program could not be built
+     */
+    static std::unique_ptr<SpriteBatch> create(int capacityPerLayer);
+
+    ~SpriteBatch();
+
+    /*!
+     * Sets the size in pixels of the render area, used to map pixel coordinates to clip space
+     */
+    void setViewport(int width, int height) const;
+
+    /*!
+     * Uploads the used part of every layer and draws each one with a single instanced call
+     *
+     * @param instances start of the Java buffer (kLayerCount * capacity instances)
+     * @param layerCounts number of instances written in each layer
+     */
+    void draw(const uint8_t *instances, const int32_t *layerCounts) const;
+
+private:
+    SpriteBatch(GLuint program, GLint viewportUniform, int capacityPerLayer);
+
+    /*!
+     * Builds a white texture whose alpha is a rounded square with a light bevel
+     */
+    static std::shared_ptr<TextureAsset> createBlockTexture(int size);
+
+    /*!
+     * Builds a white texture whose alpha is a soft disc
+     */
+    static std::shared_ptr<TextureAsset> createGlowTexture(int size);
+
+    GLuint program_;
+    GLint viewportUniform_;
+    int capacityPerLayer_;
+
+    GLuint vertexArray_;
+    GLuint quadBuffer_;
+    GLuint instanceBuffer_;
+
+    std::shared_ptr<TextureAsset> blockTexture_;
+    std::shared_ptr<TextureAsset> glowTexture_;
+};
+
+#endif //ANDROIDGLINVESTIGATIONS_SPRITEBATCH_H
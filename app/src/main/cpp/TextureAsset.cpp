@@ -38,6 +38,17 @@ TextureAsset::loadAsset(AAssetManager *assetManager, const std::string &assetPat
     assert(decodeResult == ANDROID_IMAGE_DECODER_SUCCESS);
 
     // Get an opengl texture
+    auto spTexture = createFromPixels(width, height, *upAndroidImageData);
+
+    // cleanup helpers
+    AImageDecoder_delete(pAndroidDecoder);
+    AAsset_close(pAndroidRobotPng);
+
+    return spTexture;
+}
+
+std::shared_ptr<TextureAsset>
+TextureAsset::createFromPixels(int width, int height, const std::vector<uint8_t> &rgbaPixels) {
     GLuint textureId;
     glGenTextures(1, &textureId);
     glBindTexture(GL_TEXTURE_2D, textureId);
@@ -59,16 +70,12 @@ TextureAsset::loadAsset(AAssetManager *assetManager, const std::string &assetPat
             0, // border (always 0)
             GL_RGBA, // format
             GL_UNSIGNED_BYTE, // type
-            upAndroidImageData->data() // Data to upload
+            rgbaPixels.data() // Data to upload
     );
 
     // generate mip levels. Not really needed for 2D, but good to do
     glGenerateMipmap(GL_TEXTURE_2D);
 
-    // cleanup helpers
-    AImageDecoder_delete(pAndroidDecoder);
-    AAsset_close(pAndroidRobotPng);
-
     // Create a shared pointer so it can be cleaned up easily/automatically
     return std::shared_ptr<TextureAsset>(new TextureAsset(textureId));
 }
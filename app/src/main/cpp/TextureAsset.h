@@ -18,6 +18,16 @@ public:
     static std::shared_ptr<TextureAsset>
     loadAsset(AAssetManager *assetManager, const std::string &assetPath);
 
+    /*!
+     * Creates a texture from pixels generated in code
+     * @param width width of the image
+     * @param height height of the image
+     * @param rgbaPixels width * height pixels, 8 bits per channel, RGBA order
+     * @return a shared pointer to a texture asset, resources will be reclaimed when it's cleaned up
+     */
+    static std::shared_ptr<TextureAsset>
+    createFromPixels(int width, int height, const std::vector<uint8_t> &rgbaPixels);
+
     ~TextureAsset();
 
     /*!
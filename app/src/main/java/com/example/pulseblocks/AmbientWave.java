@@ -0,0 +1,62 @@
+// AmbientWave.java
+package com.example.pulseblocks;
+
+/**
+ * Animaciones ambientales sin estado (brillos, parpadeo de estrellas, pulsos): el valor se
+ * calcula al dibujar a partir del tiempo y de una fase propia de cada entidad, en lugar de ir
+ * acumulando un incremento por tick. Así las entidades que no se mueven no necesitan update()
+ * y el resultado en un instante dado no depende de la frecuencia de frames. El seno sale de una
+ * tabla precalculada de una vuelta con interpolación lineal.
+ */
+final class AmbientWave {
+    private static final int SINE_SIZE = 1024; // Muestras por vuelta (potencia de dos)
+    private static final float[] SINE = new float[SINE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= SINE_SIZE; i++) {
+            SINE[i] = (float) Math.sin(Math.PI * 2 * i / SINE_SIZE);
+        }
+    }
+
+    private AmbientWave() {
+    }
+
+    /**
+     * Seno de una fase expresada en vueltas (1 vuelta = 2π)
+     */
+    static float sinTurns(double turns) {
+        double position = (turns - Math.floor(turns)) * SINE_SIZE;
+        int index = (int) position;
+        float fraction = (float) (position - index);
+        index &= SINE_SIZE - 1; // Por redondeo la fracción de vuelta puede llegar a 1.0
+        return SINE[index] + (SINE[index + 1] - SINE[index]) * fraction;
+    }
+
+    /**
+     * Onda senoidal en [0, 1] que vale 0.5 subiendo en phaseTurns = 0
+     *
+     * @param timeMs     tiempo de la animación en milisegundos
+     * @param periodMs   duración de un ciclo
+     * @param phaseTurns desfase propio de la entidad, en vueltas
+     */
+    static float wave01(long timeMs, float periodMs, float phaseTurns) {
+        return sinTurns(timeMs / (double) periodMs + phaseTurns) * 0.5f + 0.5f;
+    }
+
+    /**
+     * Diente de sierra en [0, 1): fracción del ciclo actual
+     */
+    static float phase01(long timeMs, float periodMs, float phaseTurns) {
+        double turns = timeMs / (double) periodMs + phaseTurns;
+        return (float) (turns - Math.floor(turns));
+    }
+
+    /**
+     * Desfase en vueltas [0, 1) derivado de una semilla, para que entidades iguales no
+     * parpadeen a la vez
+     */
+    static float seedPhase(long seed) {
+        long mixed = seed * 0x9E3779B97F4A7C15L;
+        return (mixed >>> 40) / (float) (1L << 24);
+    }
+}
@@ -1,24 +1,50 @@
 // BlockGroup.java
 package com.example.pulseblocks;
 
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
+/**
+ * Grupo de bloques que cae por la cuadrícula. Además de la lista de bloques (para dibujarlos y
+ * animarlos) guarda la forma como una máscara de bits por fila relativa a una celda origen, con
+ * los límites y el número de celdas ocupadas actualizados de forma incremental.
+ */
 class BlockGroup {
+    private static final int MAX_COLUMNS = 64; // Bits de una fila de la máscara
+
     private List<Block> blocks;
+    private final OccupancyGrid grid;
+    private int gridId; // Id del grupo en el mapa de ocupación (0 si no está dado de alta)
     private float fallSpeed = 2;
     private int minX, maxX, minY, maxY;
     private int blockSize;
-    private long lastMoveTime = 0;
+
+    // Forma: el bit c de rowMasks[r] es la celda (originX + c * blockSize, originY + r * blockSize).
+    // La celda origen es la esquina superior izquierda de los límites.
+    private long[] rowMasks = new long[8];
+    private int originX, originY;
+    private int columns = 0, rows = 0;
+    private int cellCount = 0; // Celdas distintas ocupadas (popcount de la máscara)
+    private int shapeVersion = 0; // Cambia al añadir celdas o vaciar la forma, no al bajar
+
+    // Geometría derivada de la máscara para el render, relativa a la celda origen: segmentos
+    // (x0, y0, x1, y1) entre centros de celdas adyacentes y del contorno de la forma
+    private float[] connectionLines = new float[16];
+    private int connectionLineCount = 0;
+    private float[] outlineSegments = new float[16];
+    private int outlineSegmentCount = 0;
+    private OutlineShape outlineShape; // Contorno para dibujar, si el render ha puesto uno
+    private int geometryVersion = -1;
+    private long lastMoveTime = Long.MIN_VALUE / 2; // El primer paso se da en el primer tick
     private int moveInterval = 500; // Milisegundos entre movimientos de cuadrícula
-    private float groupGlow = 0; // Para efectos de grupo
+    private static final float GLOW_PERIOD_MS = 3491f; // Ciclo del brillo del grupo
+    private long spawnTime = 0; // Origen de la fase del brillo del grupo
+
+    // Paso programado en la rueda de timers de GameSimulation, que asigna el timer al crear el
+    // grupo; stepDue indica que el plazo ha vencido y el paso se comprueba en este tick
+    TimingWheel.Timer stepTimer;
+    boolean stepDue = false;
     private boolean isCompleting = false; // Para animación de completado
     private long completionStartTime = 0;
 
@@ -26,97 +52,389 @@ class BlockGroup {
     private long disappearStartTime = 0;
     private int disappearEffect = 0; // 0: Explosión, 1: Implosión, 2: Desvanecimiento
     private float disappearProgress = 0;
-    private Map<Block, Float> blockAngles = new HashMap<>();
-    private Map<Block, Float> blockVelocityX = new HashMap<>();
-    private Map<Block, Float> blockVelocityY = new HashMap<>();
+    // Estado del efecto por bloque, alineado con los índices de blocks
+    private float[] blockAngles;
+    private float[] blockVelocityX;
+    private float[] blockVelocityY;
 
-    public BlockGroup() {
+    public BlockGroup(OccupancyGrid grid) {
         blocks = new ArrayList<>();
-        blockSize = 60; // Debe coincidir con el blockSize del juego
+        this.grid = grid;
+        this.gridId = grid.register(this);
+        blockSize = grid.getBlockSize(); // Coincide con el blockSize del juego
+    }
+
+    /**
+     * Deja el grupo vacío y dado de alta en el mapa de ocupación, como recién creado, para
+     * reutilizarlo desde un pool. Los bloques que tuviera deben haberse devuelto antes.
+     */
+    public void reset() {
+        blocks.clear();
+        clearShape();
+        minX = maxX = minY = maxY = 0;
+        fallSpeed = 2;
+        moveInterval = 500;
+        lastMoveTime = Long.MIN_VALUE / 2;
+        spawnTime = 0;
+        stepDue = false;
+        isCompleting = false;
+        completionStartTime = 0;
+        isDisappearing = false;
+        disappearStartTime = 0;
+        disappearEffect = 0;
+        disappearProgress = 0;
+        if (gridId == 0) {
+            gridId = grid.register(this);
+        }
     }
 
     public void addBlock(Block block) {
         blocks.add(block);
+        grid.occupy(gridId, block.x, block.y);
+        addCell((int) block.x, (int) block.y);
+    }
+
+    /**
+     * Pasa a este grupo todos los bloques de other, que queda vacío y sin id en el mapa de
+     * ocupación (su id pasa a formar parte del componente de este grupo). Conviene llamarlo
+     * sobre el grupo con más bloques, así cada bloque cambia de grupo pocas veces.
+     */
+    public void absorb(BlockGroup other) {
+        gridId = grid.union(gridId, other.gridId, this);
+        other.gridId = 0;
+
+        List<Block> moved = other.blocks;
+        for (int i = 0; i < moved.size(); i++) {
+            Block block = moved.get(i);
+            blocks.add(block);
+            addCell((int) block.x, (int) block.y);
+        }
+        moved.clear();
+        other.clearShape();
+    }
+
+    /**
+     * Marca la celda en la máscara, ampliando el origen o el tamaño si queda fuera
+     */
+    private void addCell(int pixelX, int pixelY) {
+        shapeVersion++;
+        if (rows == 0) {
+            originX = pixelX;
+            originY = pixelY;
+            columns = rows = 1;
+            rowMasks[0] = 1L;
+            cellCount = 1;
+            updateBounds();
+            return;
+        }
+
+        int column = Math.floorDiv(pixelX - originX, blockSize);
+        int row = Math.floorDiv(pixelY - originY, blockSize);
+        if (column < 0) {
+            shiftColumns(-column);
+            column = 0;
+        }
+        if (row < 0) {
+            shiftRows(-row);
+            row = 0;
+        }
+        if (column >= columns) {
+            if (column >= MAX_COLUMNS) {
+                throw new IllegalStateException("Grupo demasiado ancho: " + (column + 1) + " columnas");
+            }
+            columns = column + 1;
+        }
+        if (row >= rows) {
+            ensureRowCapacity(row + 1);
+            rows = row + 1;
+        }
+
+        long bit = 1L << column;
+        if ((rowMasks[row] & bit) == 0) {
+            rowMasks[row] |= bit;
+            cellCount++;
+        }
         updateBounds();
     }
 
+    private void shiftColumns(int count) {
+        if (columns + count > MAX_COLUMNS) {
+            throw new IllegalStateException("Grupo demasiado ancho: " + (columns + count) + " columnas");
+        }
+        for (int r = 0; r < rows; r++) {
+            rowMasks[r] <<= count;
+        }
+        originX -= count * blockSize;
+        columns += count;
+    }
+
+    private void shiftRows(int count) {
+        ensureRowCapacity(rows + count);
+        System.arraycopy(rowMasks, 0, rowMasks, count, rows);
+        for (int r = 0; r < count; r++) {
+            rowMasks[r] = 0;
+        }
+        originY -= count * blockSize;
+        rows += count;
+    }
+
+    private void ensureRowCapacity(int needed) {
+        if (needed <= rowMasks.length) return;
+        long[] grown = new long[Math.max(needed, rowMasks.length * 2)];
+        System.arraycopy(rowMasks, 0, grown, 0, rows);
+        rowMasks = grown;
+    }
+
+    private void clearShape() {
+        for (int r = 0; r < rows; r++) {
+            rowMasks[r] = 0;
+        }
+        columns = rows = 0;
+        cellCount = 0;
+        shapeVersion++;
+    }
+
+    /**
+     * Conexiones entre celdas adyacentes como segmentos entre sus centros, relativos a
+     * (getMinX(), getMinY()) y listos para Canvas.drawLines. Se calculan desde la máscara solo
+     * cuando cambia la forma: al bajar un paso siguen valiendo.
+     */
+    float[] getConnectionLines() {
+        updateGeometry();
+        return connectionLines;
+    }
+
+    /**
+     * Floats válidos de getConnectionLines() (4 por segmento)
+     */
+    int getConnectionLineCount() {
+        updateGeometry();
+        return connectionLineCount;
+    }
+
+    /**
+     * Contorno de la forma como segmentos sobre los bordes de las celdas, relativos a
+     * (getMinX(), getMinY()); los tramos rectos seguidos van en un solo segmento
+     */
+    float[] getOutlineSegments() {
+        updateGeometry();
+        return outlineSegments;
+    }
+
+    /**
+     * Floats válidos de getOutlineSegments() (4 por segmento)
+     */
+    int getOutlineSegmentCount() {
+        updateGeometry();
+        return outlineSegmentCount;
+    }
+
+    /**
+     * Figura en la que se copia el contorno para dibujarlo de una vez (en Android, un Path).
+     * La simulación no depende de Android, así que la crea el render; el grupo la rellena con
+     * los segmentos del contorno cada vez que cambia la forma.
+     */
+    interface OutlineShape {
+        void rewind();
+
+        void addSegment(float x0, float y0, float x1, float y1);
+    }
+
+    /**
+     * Contorno al día con la forma actual (los mismos tramos que getOutlineSegments()), o null
+     * si aún no se ha puesto ninguna figura
+     */
+    OutlineShape getOutlineShape() {
+        updateGeometry();
+        return outlineShape;
+    }
+
+    /**
+     * Asigna la figura del contorno; se queda con el grupo aunque vuelva al pool
+     */
+    void setOutlineShape(OutlineShape shape) {
+        outlineShape = shape;
+        geometryVersion = -1; // Rellenarla en la siguiente consulta
+    }
+
+    private void updateGeometry() {
+        if (geometryVersion == shapeVersion) return;
+        geometryVersion = shapeVersion;
+
+        float half = blockSize / 2f;
+        connectionLineCount = 0;
+        for (int r = 0; r < rows; r++) {
+            long horizontal = rowMasks[r] & (rowMasks[r] >>> 1);
+            long vertical = r + 1 < rows ? rowMasks[r] & rowMasks[r + 1] : 0;
+            for (int c = 0; c < columns; c++) {
+                float x = c * blockSize + half;
+                float y = r * blockSize + half;
+                if ((horizontal >>> c & 1L) != 0) {
+                    connectionLines = addSegment(connectionLines, connectionLineCount, x, y, x + blockSize, y);
+                    connectionLineCount += 4;
+                }
+                if ((vertical >>> c & 1L) != 0) {
+                    connectionLines = addSegment(connectionLines, connectionLineCount, x, y, x, y + blockSize);
+                    connectionLineCount += 4;
+                }
+            }
+        }
+
+        // Contorno: bordes entre una celda ocupada y otra libre, unidos en tramos
+        outlineSegmentCount = 0;
+        for (int r = 0; r <= rows; r++) {
+            long edges = maskAt(r - 1) ^ maskAt(r);
+            int start = -1;
+            for (int c = 0; c <= columns; c++) {
+                boolean edge = c < columns && (edges >>> c & 1L) != 0;
+                if (edge && start < 0) {
+                    start = c;
+                } else if (!edge && start >= 0) {
+                    float y = r * blockSize;
+                    outlineSegments = addSegment(outlineSegments, outlineSegmentCount,
+                            start * blockSize, y, c * blockSize, y);
+                    outlineSegmentCount += 4;
+                    start = -1;
+                }
+            }
+        }
+        for (int c = 0; c <= columns; c++) {
+            int start = -1;
+            for (int r = 0; r <= rows; r++) {
+                boolean edge = r < rows && isCell(r, c - 1) != isCell(r, c);
+                if (edge && start < 0) {
+                    start = r;
+                } else if (!edge && start >= 0) {
+                    float x = c * blockSize;
+                    outlineSegments = addSegment(outlineSegments, outlineSegmentCount,
+                            x, start * blockSize, x, r * blockSize);
+                    outlineSegmentCount += 4;
+                    start = -1;
+                }
+            }
+        }
+
+        if (outlineShape != null) {
+            outlineShape.rewind();
+            for (int i = 0; i < outlineSegmentCount; i += 4) {
+                outlineShape.addSegment(outlineSegments[i], outlineSegments[i + 1],
+                        outlineSegments[i + 2], outlineSegments[i + 3]);
+            }
+        }
+    }
+
+    private long maskAt(int row) {
+        return row >= 0 && row < rows ? rowMasks[row] : 0;
+    }
+
+    private boolean isCell(int row, int column) {
+        return column >= 0 && column < columns && (rowMasks[row] >>> column & 1L) != 0;
+    }
+
+    private static float[] addSegment(float[] buffer, int count, float x0, float y0, float x1, float y1) {
+        if (count + 4 > buffer.length) {
+            float[] grown = new float[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, count);
+            buffer = grown;
+        }
+        buffer[count] = x0;
+        buffer[count + 1] = y0;
+        buffer[count + 2] = x1;
+        buffer[count + 3] = y1;
+        return buffer;
+    }
+
+    /**
+     * Libera las celdas del grupo en el mapa de ocupación (al completarse o eliminarse)
+     */
+    public void releaseFromGrid() {
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            grid.vacate(gridId, block.x, block.y);
+        }
+        grid.unregister(gridId);
+        gridId = 0;
+    }
+
     public void setFallSpeed(float speed) {
         this.fallSpeed = speed;
         // Ajustar intervalo de movimiento basado en la velocidad
         moveInterval = Math.max(200, (int) (800 / speed));
     }
 
-    public void update() {
-        long currentTime = System.currentTimeMillis();
+    int getMoveInterval() {
+        return moveInterval;
+    }
 
-        // Actualizar efecto de brillo del grupo
-        groupGlow += 0.03f;
-        if (groupGlow > Math.PI * 2) groupGlow = 0;
+    public void setSpawnTime(long spawnTime) {
+        this.spawnTime = spawnTime;
+    }
 
+    /**
+     * Baja una casilla si ya ha pasado el intervalo de movimiento. Solo hace falta llamarlo
+     * cuando vence su timer: entre pasos el grupo no cambia.
+     *
+     * @return true si el grupo ha bajado una casilla en este tick
+     */
+    public boolean update(long currentTime) {
         // Mover en pasos discretos de cuadrícula
-        if (currentTime - lastMoveTime > moveInterval) {
+        boolean moved = currentTime - lastMoveTime > moveInterval;
+        if (moved) {
+            // Primero liberar todas las celdas y luego ocupar las nuevas, para no borrar
+            // la celda a la que acaba de bajar otro bloque del mismo grupo
+            for (Block block : blocks) {
+                grid.vacate(gridId, block.x, block.y);
+            }
             for (Block block : blocks) {
                 block.y += blockSize; // Mover exactamente una casilla de cuadrícula
+                grid.occupy(gridId, block.x, block.y);
             }
             lastMoveTime = currentTime;
+            originY += blockSize;
             updateBounds();
         }
-
-        // Actualizar cada bloque individual
-        for (Block block : blocks) {
-            block.update();
-        }
-    }
-
-    public void draw(Canvas canvas, Paint paint) {
-        // Si el grupo se está completando, dibujar efecto especial
-        if (isCompleting) {
-            drawCompletionEffect(canvas, paint);
-        }
-
-        // Dibujar efecto de brillo del grupo
-        drawGroupGlow(canvas, paint);
-
-        // Dibujar cada bloque
-        for (Block block : blocks) {
-            block.draw(canvas, paint);
-        }
-
-        // Dibujar conexiones entre bloques
-        drawBlockConnections(canvas, paint);
+        return moved;
     }
 
-    public void startDisappearWithEffect() {
+    public void startDisappearWithEffect(long now, Random rand) {
         if (isDisappearing) return;
 
         isDisappearing = true;
-        disappearStartTime = System.currentTimeMillis();
-        disappearEffect = new Random().nextInt(3); // 0, 1 o 2
+        disappearStartTime = now;
+        disappearEffect = rand.nextInt(3); // 0, 1 o 2
         disappearProgress = 0;
+        ensureEffectCapacity(blocks.size());
 
         // Inicializar datos específicos según el efecto
         switch (disappearEffect) {
             case 0: // Explosión
-                initExplosionEffect();
+                initExplosionEffect(rand);
                 break;
             case 1: // Implosión
-                initImplosionEffect();
+                initImplosionEffect(rand);
                 break;
             case 2: // Desvanecimiento
-                initFadeEffect();
+                initFadeEffect(rand);
                 break;
         }
     }
 
+    private void ensureEffectCapacity(int count) {
+        if (blockAngles != null && blockAngles.length >= count) return;
+        blockAngles = new float[count];
+        blockVelocityX = new float[count];
+        blockVelocityY = new float[count];
+    }
+
     /**
      * Inicializa el efecto de explosión (los bloques salen disparados)
      */
-    private void initExplosionEffect() {
-        Random rand = new Random();
+    private void initExplosionEffect(Random rand) {
         float centerX = (minX + maxX) / 2f;
         float centerY = (minY + maxY) / 2f;
 
-        for (Block block : blocks) {
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
             // Calcular dirección desde el centro
             float dx = block.getX() - centerX;
             float dy = block.getY() - centerY;
@@ -126,21 +444,21 @@ class BlockGroup {
 
             // Velocidad hacia afuera con algo de aleatoriedad
             float speed = 5 + rand.nextFloat() * 3;
-            blockVelocityX.put(block, (dx / distance) * speed);
-            blockVelocityY.put(block, (dy / distance) * speed);
-            blockAngles.put(block, rand.nextFloat() * 360);
+            blockVelocityX[i] = (dx / distance) * speed;
+            blockVelocityY[i] = (dy / distance) * speed;
+            blockAngles[i] = rand.nextFloat() * 360;
         }
     }
 
     /**
      * Inicializa el efecto de implosión (los bloques se contraen al centro)
      */
-    private void initImplosionEffect() {
-        Random rand = new Random();
+    private void initImplosionEffect(Random rand) {
         float centerX = (minX + maxX) / 2f;
         float centerY = (minY + maxY) / 2f;
 
-        for (Block block : blocks) {
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
             // Calcular dirección hacia el centro
             float dx = centerX - block.getX();
             float dy = centerY - block.getY();
@@ -150,21 +468,20 @@ class BlockGroup {
 
             // Velocidad hacia el centro
             float speed = 4 + rand.nextFloat() * 2;
-            blockVelocityX.put(block, (dx / distance) * speed);
-            blockVelocityY.put(block, (dy / distance) * speed);
-            blockAngles.put(block, rand.nextFloat() * 360);
+            blockVelocityX[i] = (dx / distance) * speed;
+            blockVelocityY[i] = (dy / distance) * speed;
+            blockAngles[i] = rand.nextFloat() * 360;
         }
     }
 
     /**
      * Inicializa el efecto de desvanecimiento (fade out con rotación)
      */
-    private void initFadeEffect() {
-        Random rand = new Random();
-        for (Block block : blocks) {
-            blockAngles.put(block, rand.nextFloat() * 360);
-            blockVelocityX.put(block, (rand.nextFloat() - 0.5f) * 2);
-            blockVelocityY.put(block, rand.nextFloat() * 2);
+    private void initFadeEffect(Random rand) {
+        for (int i = 0; i < blocks.size(); i++) {
+            blockAngles[i] = rand.nextFloat() * 360;
+            blockVelocityX[i] = (rand.nextFloat() - 0.5f) * 2;
+            blockVelocityY[i] = rand.nextFloat() * 2;
         }
     }
 
@@ -173,10 +490,10 @@ class BlockGroup {
      *
      * @return true si la animación ha terminado
      */
-    public boolean updateDisappearEffect() {
+    public boolean updateDisappearEffect(long now) {
         if (!isDisappearing) return false;
 
-        long elapsed = System.currentTimeMillis() - disappearStartTime;
+        long elapsed = now - disappearStartTime;
         float duration = 1000; // 1 segundo de animación
 
         disappearProgress = Math.min(elapsed / duration, 1.0f);
@@ -193,9 +510,8 @@ class BlockGroup {
                 break;
         }
 
-        // Retornar true si la animación terminó
+        // Retornar true si la animación terminó (los bloques siguen en el grupo para devolverlos al pool)
         if (disappearProgress >= 1.0f) {
-            blocks.clear();
             isDisappearing = false;
             return true;
         }
@@ -207,16 +523,17 @@ class BlockGroup {
      * Actualiza posiciones para el efecto de explosión
      */
     private void updateExplosionEffect() {
-        for (Block block : blocks) {
-            float vx = blockVelocityX.get(block);
-            float vy = blockVelocityY.get(block);
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            float vx = blockVelocityX[i];
+            float vy = blockVelocityY[i];
 
             block.setX(block.getX() + vx * disappearProgress);
             block.setY(block.getY() + vy * disappearProgress);
 
             // Rotar bloques
-            float angle = blockAngles.get(block) + disappearProgress * 360;
-            blockAngles.put(block, angle);
+            float angle = blockAngles[i] + disappearProgress * 360;
+            blockAngles[i] = angle;
             block.setRotation(angle);
 
             // Desvanecer
@@ -231,9 +548,10 @@ class BlockGroup {
         float centerX = (minX + maxX) / 2f;
         float centerY = (minY + maxY) / 2f;
 
-        for (Block block : blocks) {
-            float vx = blockVelocityX.get(block);
-            float vy = blockVelocityY.get(block);
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            float vx = blockVelocityX[i];
+            float vy = blockVelocityY[i];
 
             // Acelerar hacia el centro
             float acceleration = disappearProgress * 2;
@@ -241,8 +559,8 @@ class BlockGroup {
             block.setY(block.getY() + vy * acceleration);
 
             // Rotar más rápido mientras se acerca
-            float angle = blockAngles.get(block) + disappearProgress * 720;
-            blockAngles.put(block, angle);
+            float angle = blockAngles[i] + disappearProgress * 720;
+            blockAngles[i] = angle;
             block.setRotation(angle);
 
             // Encoger y desvanecer
@@ -256,17 +574,18 @@ class BlockGroup {
      * Actualiza el efecto de desvanecimiento
      */
     private void updateFadeEffect() {
-        for (Block block : blocks) {
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
             // Movimiento suave hacia arriba y ligeramente lateral
-            float vx = blockVelocityX.get(block);
-            float vy = blockVelocityY.get(block);
+            float vx = blockVelocityX[i];
+            float vy = blockVelocityY[i];
 
             block.setX(block.getX() + vx * disappearProgress);
             block.setY(block.getY() - vy * disappearProgress * 2);
 
             // Rotación suave
-            float angle = blockAngles.get(block) + disappearProgress * 180;
-            blockAngles.put(block, angle);
+            float angle = blockAngles[i] + disappearProgress * 180;
+            blockAngles[i] = angle;
             block.setRotation(angle);
 
             // Fade out con curva ease-out
@@ -279,70 +598,39 @@ class BlockGroup {
         }
     }
 
-    private void drawGroupGlow(Canvas canvas, Paint paint) {
-        if (blocks.isEmpty()) return;
-
-        updateBounds();
-        float glow = (float) (Math.sin(groupGlow) * 0.3 + 0.3);
-
-        // Resplandor alrededor del grupo completo
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(4);
-        paint.setColor(Color.argb((int) (50 * glow), 255, 255, 0));
-
-        canvas.drawRect(minX - 5, minY - 5, maxX + 5, maxY + 5, paint);
+    List<Block> getBlocks() {
+        return blocks;
     }
 
-    private void drawBlockConnections(Canvas canvas, Paint paint) {
-        // Dibujar líneas de conexión entre bloques adyacentes
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(1);
-        paint.setColor(Color.argb(100, 255, 255, 255));
-
-        for (int i = 0; i < blocks.size(); i++) {
-            Block block1 = blocks.get(i);
-            for (int j = i + 1; j < blocks.size(); j++) {
-                Block block2 = blocks.get(j);
-
-                // Si están adyacentes, dibujar conexión
-                if (areAdjacent(block1, block2)) {
-                    canvas.drawLine(
-                            block1.x + block1.size / 2, block1.y + block1.size / 2,
-                            block2.x + block2.size / 2, block2.y + block2.size / 2,
-                            paint
-                    );
-                }
-            }
-        }
+    boolean isDisappearing() {
+        return isDisappearing;
     }
 
-    private boolean areAdjacent(Block block1, Block block2) {
-        float dx = Math.abs(block1.x - block2.x);
-        float dy = Math.abs(block1.y - block2.y);
-
-        return (dx == blockSize && dy == 0) || (dx == 0 && dy == blockSize);
+    boolean isCompleting() {
+        return isCompleting;
     }
 
-    private void drawCompletionEffect(Canvas canvas, Paint paint) {
-        long elapsed = System.currentTimeMillis() - completionStartTime;
-        float progress = elapsed / 500.0f; // 500ms de animación
-
-        if (progress <= 1.0f) {
-            updateBounds();
-
-            // Efecto de explosión de luz
-            paint.setStyle(Paint.Style.FILL);
-            int alpha = (int) (255 * (1.0f - progress));
-            paint.setColor(Color.argb(alpha, 255, 255, 0));
+    long getCompletionStartTime() {
+        return completionStartTime;
+    }
 
-            float centerX = (minX + maxX) / 2.0f;
-            float centerY = (minY + maxY) / 2.0f;
-            float radius = progress * 100;
+    /**
+     * Brillo del grupo en [0, 1], derivado del tiempo desde que apareció
+     */
+    float getGroupGlow(long now) {
+        return AmbientWave.wave01(Math.max(0, now - spawnTime), GLOW_PERIOD_MS, 0f);
+    }
 
-            canvas.drawCircle(centerX, centerY, radius, paint);
-        }
+    int getBlockSize() {
+        return blockSize;
     }
 
+    // Límites en píxeles de la forma (se mantienen al añadir bloques y al bajar)
+    int getMinX() { return minX; }
+    int getMaxX() { return maxX; }
+    int getMinY() { return minY; }
+    int getMaxY() { return maxY; }
+
     public boolean checkCollision(Block playerBlock) {
         for (Block block : blocks) {
             // Verificar colisión en todas las direcciones
@@ -391,7 +679,6 @@ class BlockGroup {
     }
 
     public int getBottomY() {
-        updateBounds();
         return maxY;
     }
 
@@ -400,76 +687,35 @@ class BlockGroup {
     }
 
     public float getCenterX() {
-        updateBounds();
         return (minX + maxX) / 2.0f;
     }
 
     public float getCenterY() {
-        updateBounds();
         return (minY + maxY) / 2.0f;
     }
 
     public int getColor() {
-        return blocks.isEmpty() ? Color.WHITE : blocks.get(0).color;
+        return blocks.isEmpty() ? 0xFFFFFFFF : blocks.get(0).color;
     }
 
     public boolean isCompleteRectangle() {
-        if (blocks.isEmpty()) return false;
-
-        updateBounds();
-        //int expectedWidth = (maxX - minX) / blockSize + 1;
-        //int expectedHeight = (maxY - minY) / blockSize + 1;
-        //int expectedBlocks = expectedWidth * expectedHeight;
-
-        // Verificar si tenemos suficientes bloques para un rectángulo
         return isRectangularShape();
     }
 
-    private boolean isRectangularShape() {
-        // Simplificado: verificar si los bloques forman una forma rectangular
-        // En una implementación completa, esto sería más sofisticado
-        updateBounds();
-        int blockSize = blocks.get(0).size;
-        int rows = (maxY - minY) / blockSize;
-        int cols = (maxX - minX) / blockSize;
-
-        // Crear matriz para verificar la forma
-        boolean[][] matrix = new boolean[rows][cols];
-
-        for (Block block : blocks) {
-            int row = ((int) block.y - minY) / blockSize;
-            int col = ((int) block.x - minX) / blockSize;
-            if (row >= 0 && row < rows && col >= 0 && col < cols) {
-                matrix[row][col] = true;
-            }
-        }
-
-        // Verificar si forma un rectángulo completo
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (!matrix[i][j]) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+    /**
+     * La forma es un rectángulo completo si las celdas ocupadas llenan sus límites
+     */
+    boolean isRectangularShape() {
+        return cellCount > 0 && cellCount == columns * rows;
     }
 
-    private void updateBounds() {
-        if (blocks.isEmpty()) return;
-
-        minX = (int) blocks.get(0).x;
-        maxX = (int) (blocks.get(0).x + blocks.get(0).size);
-        minY = (int) blocks.get(0).y;
-        maxY = (int) (blocks.get(0).y + blocks.get(0).size);
-
-        for (Block block : blocks) {
-            minX = Math.min(minX, (int) block.x);
-            maxX = Math.max(maxX, (int) (block.x + block.size));
-            minY = Math.min(minY, (int) block.y);
-            maxY = Math.max(maxY, (int) (block.y + block.size));
-        }
+    /**
+     * Límites en píxeles a partir del origen y el tamaño de la máscara (O(1))
+     */
+    void updateBounds() {
+        minX = originX;
+        maxX = originX + columns * blockSize;
+        minY = originY;
+        maxY = originY + rows * blockSize;
     }
 }
-
@@ -0,0 +1,147 @@
+// BlockGroupRenderer.java
+package com.example.pulseblocks;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+import java.util.List;
+
+/**
+ * Dibuja los grupos de bloques de la simulación: resplandor del grupo, bloques desde el atlas,
+ * conexiones entre bloques adyacentes y efectos de completado y desaparición. La parte que solo
+ * cambia cuando el grupo se mueve (drawStatic) se puede cachear en una BoardLayer y la animada
+ * (drawAnimated) se dibuja cada frame encima. Las conexiones y el contorno salen de la forma
+ * del grupo y se dibujan relativos a su esquina, así solo se recalculan al cambiar la forma.
+ */
+class BlockGroupRenderer {
+    private final BlockSpriteAtlas atlas;
+
+    /**
+     * Path que el grupo rellena con su contorno (ver BlockGroup.OutlineShape)
+     */
+    private static final class OutlinePath extends Path implements BlockGroup.OutlineShape {
+        @Override
+        public void addSegment(float x0, float y0, float x1, float y1) {
+            moveTo(x0, y0);
+            lineTo(x1, y1);
+        }
+    }
+
+    public BlockGroupRenderer(BlockSpriteAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    public void draw(Canvas canvas, Paint paint, BlockGroup group, long now) {
+        List<Block> blocks = group.getBlocks();
+
+        // Durante la desaparición cada bloque lleva su propia rotación, escala y alpha
+        if (group.isDisappearing()) {
+            for (Block block : blocks) {
+                atlas.drawGradient(canvas, block.color, block.size, block.x, block.y,
+                        block.getRotation(), block.getScale(), block.getAlpha());
+            }
+            return;
+        }
+        if (blocks.isEmpty()) return;
+
+        drawAnimated(canvas, paint, group, now);
+        drawStatic(canvas, paint, group);
+    }
+
+    /**
+     * Bloques y conexiones: solo dependen de la posición y la forma del grupo
+     */
+    public void drawStatic(Canvas canvas, Paint paint, BlockGroup group) {
+        if (group.isDisappearing()) return;
+        List<Block> blocks = group.getBlocks();
+
+        // Dibujar cada bloque
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            atlas.drawPlain(canvas, block.color, block.size, block.x, block.y);
+        }
+
+        // Dibujar conexiones entre bloques
+        drawBlockConnections(canvas, paint, group);
+    }
+
+    /**
+     * Resplandor y efecto de completado, que cambian en cada tick
+     */
+    public void drawAnimated(Canvas canvas, Paint paint, BlockGroup group, long now) {
+        if (group.isDisappearing() || group.getBlocks().isEmpty()) return;
+
+        // Si el grupo se está completando, dibujar efecto especial
+        if (group.isCompleting()) {
+            drawCompletionEffect(canvas, paint, group, now);
+        }
+
+        // Dibujar efecto de brillo del grupo
+        drawGroupGlow(canvas, paint, group, now);
+    }
+
+    private void drawGroupGlow(Canvas canvas, Paint paint, BlockGroup group, long now) {
+        float glow = group.getGroupGlow(now) * 0.6f;
+
+        // Resplandor sobre el contorno del grupo; con extremos cuadrados las esquinas quedan
+        // cerradas
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(4);
+        paint.setStrokeCap(Paint.Cap.SQUARE);
+        paint.setColor(Color.argb((int) (50 * glow), 255, 255, 0));
+
+        canvas.save();
+        canvas.translate(group.getMinX(), group.getMinY());
+        canvas.drawPath(outlineOf(group), paint);
+        canvas.restore();
+        paint.setStrokeCap(Paint.Cap.BUTT);
+    }
+
+    /**
+     * Path del contorno del grupo. Lo guarda el propio grupo, que lo reconstruye junto a sus
+     * segmentos solo cuando cambia la forma.
+     */
+    private Path outlineOf(BlockGroup group) {
+        BlockGroup.OutlineShape shape = group.getOutlineShape();
+        if (shape == null) {
+            group.setOutlineShape(new OutlinePath());
+            shape = group.getOutlineShape();
+        }
+        return (OutlinePath) shape;
+    }
+
+    private void drawBlockConnections(Canvas canvas, Paint paint, BlockGroup group) {
+        int count = group.getConnectionLineCount();
+        if (count == 0) return;
+
+        // Todas las conexiones entre bloques adyacentes en una sola llamada
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(1);
+        paint.setColor(Color.argb(100, 255, 255, 255));
+
+        canvas.save();
+        canvas.translate(group.getMinX(), group.getMinY());
+        canvas.drawLines(group.getConnectionLines(), 0, count, paint);
+        canvas.restore();
+    }
+
+    private void drawCompletionEffect(Canvas canvas, Paint paint, BlockGroup group, long now) {
+        long elapsed = now - group.getCompletionStartTime();
+        float progress = elapsed / 500.0f; // 500ms de animación
+
+        if (progress <= 1.0f) {
+            // Efecto de explosión de luz
+            paint.setStyle(Paint.Style.FILL);
+            int alpha = (int) (255 * (1.0f - progress));
+            paint.setColor(Color.argb(alpha, 255, 255, 0));
+
+            float centerX = (group.getMinX() + group.getMaxX()) / 2.0f;
+            float centerY = (group.getMinY() + group.getMaxY()) / 2.0f;
+            float radius = progress * 100;
+
+            canvas.drawCircle(centerX, centerY, radius, paint);
+        }
+    }
+}
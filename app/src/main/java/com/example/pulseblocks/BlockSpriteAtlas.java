@@ -0,0 +1,266 @@
+// BlockSpriteAtlas.java
+package com.example.pulseblocks;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Atlas de sprites de bloques. Cada combinación (color, tamaño, estilo, fase de brillo) se
+ * rasteriza una sola vez en una celda de una página del atlas; después cada bloque se dibuja
+ * con un único drawBitmap. La rotación, escala y alpha de los efectos de desaparición se
+ * aplican con una Matrix y el alpha del Paint en lugar de volver a crear gradientes.
+ */
+class BlockSpriteAtlas {
+    // Estilos de sprite
+    private static final int KIND_PLAIN = 0;    // Block.draw
+    private static final int KIND_GLOW = 1;     // Block.drawWithGlow
+    private static final int KIND_GRADIENT = 2; // Block.render
+
+    public static final int GLOW_BUCKETS = 16; // Fases de brillo cuantizadas
+
+    private static final int PADDING = 8; // Espacio para las capas de resplandor y bordes
+    private static final int CELLS_PER_SIDE = 8;
+    private static final int CELLS_PER_PAGE = CELLS_PER_SIDE * CELLS_PER_SIDE;
+    private static final int TABLE_SIZE = 256; // Potencia de dos
+
+    private final int maxBlockSize;
+    private final int cellSize;
+    private final List<Bitmap> pages = new ArrayList<>();
+    private Canvas pageCanvas;
+    private int cellCount = 0;
+
+    // Tabla de dispersión clave -> celda (sin boxing)
+    private long[] tableKeys = new long[TABLE_SIZE];
+    private int[] tableCells = new int[TABLE_SIZE];
+    private boolean[] tableUsed = new boolean[TABLE_SIZE];
+    private int tableCount = 0;
+
+    // Objetos reutilizados al dibujar
+    private final Paint spritePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect src = new Rect();
+    private final RectF dst = new RectF();
+    private final Matrix matrix = new Matrix();
+
+    public BlockSpriteAtlas(int maxBlockSize) {
+        this.maxBlockSize = maxBlockSize;
+        this.cellSize = maxBlockSize + PADDING * 2;
+    }
+
+    /**
+     * Bloque simple: relleno de color con borde blanco
+     */
+    public void drawPlain(Canvas canvas, int color, int size, float x, float y) {
+        drawCell(canvas, findOrCreate(color, size, KIND_PLAIN, 0), x, y, 255);
+    }
+
+    /**
+     * Bloque con resplandor; glow en [0, 1] se cuantiza en GLOW_BUCKETS fases
+     */
+    public void drawGlow(Canvas canvas, int color, int size, float x, float y, float glow) {
+        int bucket = Math.round(Math.max(0f, Math.min(1f, glow)) * (GLOW_BUCKETS - 1));
+        drawCell(canvas, findOrCreate(color, size, KIND_GLOW, bucket), x, y, 255);
+    }
+
+    /**
+     * Bloque con gradiente y brillo de cristal, transformado alrededor de su centro
+     */
+    public void drawGradient(Canvas canvas, int color, int size, float x, float y,
+                             float rotation, float scale, float alpha) {
+        int alphaByte = (int) (Math.max(0f, Math.min(1f, alpha)) * 255);
+        if (alphaByte == 0 || scale <= 0) return;
+
+        int cell = findOrCreate(color, size, KIND_GRADIENT, 0);
+        float center = size / 2f;
+        matrix.reset();
+        matrix.setTranslate(x, y);
+        matrix.preRotate(rotation, center, center);
+        matrix.preScale(scale, scale, center, center);
+
+        canvas.save();
+        canvas.concat(matrix);
+        drawCell(canvas, cell, 0, 0, alphaByte);
+        canvas.restore();
+    }
+
+    private void drawCell(Canvas canvas, int cell, float x, float y, int alpha) {
+        Bitmap page = pages.get(cell / CELLS_PER_PAGE);
+        int index = cell % CELLS_PER_PAGE;
+        int left = (index % CELLS_PER_SIDE) * cellSize;
+        int top = (index / CELLS_PER_SIDE) * cellSize;
+        src.set(left, top, left + cellSize, top + cellSize);
+        dst.set(x - PADDING, y - PADDING, x - PADDING + cellSize, y - PADDING + cellSize);
+        spritePaint.setAlpha(alpha);
+        canvas.drawBitmap(page, src, dst, spritePaint);
+    }
+
+    private int findOrCreate(int color, int size, int kind, int bucket) {
+        long key = ((long) color << 32) | ((long) (size & 0xFFFF) << 16) | (kind << 8) | bucket;
+        int slot = slotFor(key);
+        if (tableUsed[slot]) return tableCells[slot];
+
+        int cell = allocateCell();
+        renderCell(cell, color, Math.min(size, maxBlockSize), kind, bucket);
+        tableUsed[slot] = true;
+        tableKeys[slot] = key;
+        tableCells[slot] = cell;
+        if (++tableCount * 2 > tableKeys.length) growTable();
+        return cell;
+    }
+
+    private int slotFor(long key) {
+        int mask = tableKeys.length - 1;
+        int slot = (int) (key ^ (key >>> 29) ^ (key >>> 47)) * 0x9E3779B9 & mask;
+        while (tableUsed[slot] && tableKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growTable() {
+        long[] oldKeys = tableKeys;
+        int[] oldCells = tableCells;
+        boolean[] oldUsed = tableUsed;
+        tableKeys = new long[oldKeys.length * 2];
+        tableCells = new int[oldKeys.length * 2];
+        tableUsed = new boolean[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = slotFor(oldKeys[i]);
+            tableUsed[slot] = true;
+            tableKeys[slot] = oldKeys[i];
+            tableCells[slot] = oldCells[i];
+        }
+    }
+
+    private int allocateCell() {
+        int cell = cellCount++;
+        if (cell / CELLS_PER_PAGE >= pages.size()) {
+            int side = cellSize * CELLS_PER_SIDE;
+            Bitmap page = Bitmap.createBitmap(side, side, Bitmap.Config.ARGB_8888);
+            pages.add(page);
+            pageCanvas = new Canvas(page);
+        }
+        return cell;
+    }
+
+    private void renderCell(int cell, int color, int size, int kind, int bucket) {
+        int index = cell % CELLS_PER_PAGE;
+        Canvas canvas = pageCanvas;
+        canvas.save();
+        canvas.translate((index % CELLS_PER_SIDE) * cellSize + PADDING,
+                (index / CELLS_PER_SIDE) * cellSize + PADDING);
+        switch (kind) {
+            case KIND_PLAIN:
+                renderPlain(canvas, color, size);
+                break;
+            case KIND_GLOW:
+                renderGlow(canvas, color, size, bucket / (float) (GLOW_BUCKETS - 1));
+                break;
+            case KIND_GRADIENT:
+                renderGradient(canvas, color, size);
+                break;
+        }
+        canvas.restore();
+    }
+
+    private static void renderPlain(Canvas canvas, int color, int size) {
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setColor(color);
+        paint.setStyle(Paint.Style.FILL);
+        canvas.drawRect(0, 0, size, size, paint);
+
+        // Borde
+        paint.setColor(Color.WHITE);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(2);
+        canvas.drawRect(0, 0, size, size, paint);
+    }
+
+    private static void renderGlow(Canvas canvas, int color, int size, float glow) {
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+
+        // Capas de resplandor
+        for (int i = 0; i < 3; i++) {
+            int alpha = (int) (30 * glow) - (i * 8);
+            if (alpha > 0) {
+                paint.setColor(Color.argb(alpha, 0, 255, 255));
+                paint.setStyle(Paint.Style.FILL);
+                float expansion = i * 3;
+                canvas.drawRect(-expansion, -expansion, size + expansion, size + expansion, paint);
+            }
+        }
+
+        // Dibujar el bloque normal
+        renderPlain(canvas, color, size);
+
+        // Efecto de energía en los bordes
+        paint.setColor(Color.argb((int) (100 + glow * 155), 0, 255, 255));
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3 + glow * 2);
+        canvas.drawRect(0, 0, size, size, paint);
+    }
+
+    private static void renderGradient(Canvas canvas, int color, int size) {
+        // Calcular colores para el gradiente (más claro en el centro)
+        int brightColor = Color.rgb(
+                Math.min(255, Color.red(color) + 60),
+                Math.min(255, Color.green(color) + 60),
+                Math.min(255, Color.blue(color) + 60)
+        );
+        int darkColor = Color.rgb(
+                Math.max(0, Color.red(color) - 30),
+                Math.max(0, Color.green(color) - 30),
+                Math.max(0, Color.blue(color) - 30)
+        );
+
+        // Gradiente radial desde el centro
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setShader(new RadialGradient(
+                size / 2f, size / 2f, size * 0.6f,
+                new int[]{brightColor, color, darkColor},
+                new float[]{0f, 0.6f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+        RectF rect = new RectF(2, 2, size - 2, size - 2);
+        canvas.drawRoundRect(rect, 10, 10, paint);
+
+        // Borde brillante
+        Paint borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        borderPaint.setStyle(Paint.Style.STROKE);
+        borderPaint.setStrokeWidth(3);
+        borderPaint.setColor(Color.WHITE);
+        borderPaint.setAlpha(100);
+        canvas.drawRoundRect(new RectF(4, 4, size - 4, size - 4), 8, 8, borderPaint);
+
+        // Efecto de brillo superior (cristal)
+        Paint glossPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        glossPaint.setShader(new LinearGradient(
+                0, 5, 0, size / 2f,
+                Color.argb(120, 255, 255, 255),
+                Color.TRANSPARENT,
+                Shader.TileMode.CLAMP
+        ));
+        canvas.drawRoundRect(new RectF(8, 5, size - 8, size / 3f), 8, 8, glossPaint);
+
+        // Sombra interior para profundidad
+        Paint shadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        shadowPaint.setColor(Color.BLACK);
+        shadowPaint.setAlpha(40);
+        shadowPaint.setMaskFilter(new BlurMaskFilter(4, BlurMaskFilter.Blur.INNER));
+        canvas.drawRoundRect(rect, 10, 10, shadowPaint);
+    }
+}
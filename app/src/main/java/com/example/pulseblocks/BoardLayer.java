@@ -0,0 +1,135 @@
+// BoardLayer.java
+package com.example.pulseblocks;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RenderNode;
+
+import java.util.List;
+
+/**
+ * Capa cacheada con la parte estática de los grupos que caen (bloques y conexiones). Solo se
+ * vuelve a pintar cuando cambia GameSimulation.getBoardVersion(): al aparecer, bajar un paso,
+ * recibir un disparo o completarse un grupo; el resto de frames se compone tal cual. En
+ * software la caché es un bitmap del tamaño del canvas del que solo se copia (y se borra) el
+ * rectángulo que ocupan los grupos; con aceleración por hardware es un RenderNode con capa de
+ * composición, que la GPU guarda como textura.
+ */
+class BoardLayer {
+    private static final int BOUNDS_MARGIN = 8; // Bordes de los sprites fuera de la celda
+
+    private final BlockGroupRenderer renderer;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint bitmapPaint = new Paint();
+
+    private int width, height;
+    private int renderedVersion = -1;
+
+    // Software
+    private Bitmap bitmap;
+    private Canvas bitmapCanvas;
+    private final Rect dirty = new Rect(); // Zona del bitmap con grupos pintados
+
+    // Hardware
+    private RenderNode node;
+
+    public BoardLayer(BlockGroupRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Compone la capa en el canvas del frame, repintándola antes si el tablero ha cambiado
+     */
+    public void draw(Canvas canvas, GameSimulation simulation) {
+        boolean hardware = canvas.isHardwareAccelerated();
+        resize(canvas.getWidth(), canvas.getHeight(), hardware);
+
+        int version = simulation.getBoardVersion();
+        if (version != renderedVersion) {
+            render(simulation.getFallingGroups(), hardware);
+            renderedVersion = version;
+        }
+
+        if (hardware) {
+            canvas.drawRenderNode(node);
+        } else if (!dirty.isEmpty()) {
+            canvas.drawBitmap(bitmap, dirty, dirty, bitmapPaint);
+        }
+    }
+
+    private void resize(int newWidth, int newHeight, boolean hardware) {
+        boolean sizeChanged = newWidth != width || newHeight != height;
+        if (hardware ? node != null && !sizeChanged : bitmap != null && !sizeChanged) return;
+
+        release();
+        width = newWidth;
+        height = newHeight;
+        if (hardware) {
+            node = new RenderNode("board");
+            node.setPosition(0, 0, width, height);
+            node.setUseCompositingLayer(true, null);
+        } else {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            bitmapCanvas = new Canvas(bitmap);
+            dirty.setEmpty();
+        }
+        renderedVersion = -1;
+    }
+
+    private void render(List<BlockGroup> groups, boolean hardware) {
+        Canvas target;
+        if (hardware) {
+            target = node.beginRecording(width, height);
+        } else {
+            // Borrar solo lo pintado la vez anterior y medir lo que se va a pintar ahora
+            if (!dirty.isEmpty()) {
+                bitmapCanvas.save();
+                bitmapCanvas.clipRect(dirty);
+                bitmapCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                bitmapCanvas.restore();
+            }
+            measure(groups);
+            target = bitmapCanvas;
+        }
+
+        for (int i = 0; i < groups.size(); i++) {
+            renderer.drawStatic(target, paint, groups.get(i));
+        }
+
+        if (hardware) {
+            node.endRecording();
+        }
+    }
+
+    private void measure(List<BlockGroup> groups) {
+        dirty.setEmpty();
+        for (int i = 0; i < groups.size(); i++) {
+            BlockGroup group = groups.get(i);
+            if (group.isDisappearing() || group.getBlocks().isEmpty()) continue;
+            dirty.union(group.getMinX() - BOUNDS_MARGIN, group.getMinY() - BOUNDS_MARGIN,
+                    group.getMaxX() + BOUNDS_MARGIN, group.getMaxY() + BOUNDS_MARGIN);
+        }
+        if (!dirty.intersect(0, 0, width, height)) dirty.setEmpty();
+    }
+
+    /**
+     * Libera el bitmap o el display list; se vuelven a crear en el siguiente draw()
+     */
+    public void release() {
+        if (node != null) {
+            node.discardDisplayList();
+            node = null;
+        }
+        if (bitmap != null) {
+            bitmap.recycle();
+            bitmap = null;
+            bitmapCanvas = null;
+            dirty.setEmpty();
+        }
+        renderedVersion = -1;
+    }
+}
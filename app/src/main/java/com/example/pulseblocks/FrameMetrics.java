@@ -0,0 +1,319 @@
+// FrameMetrics.java
+package com.example.pulseblocks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Métricas por frame guardadas en un buffer circular sin bloqueos. Un único escritor (el hilo
+ * del juego) rellena el frame en curso con beginFrame/record.../endFrame y lo publica
+ * incrementando un contador volatile; los lectores (el HUD o el volcado a fichero) copian los
+ * últimos frames y descartan los que el escritor haya podido sobrescribir mientras tanto.
+ */
+class FrameMetrics {
+    public static final int DEFAULT_CAPACITY = 1024; // Potencia de dos
+    private static final float JANK_FACTOR = 1.5f; // Frame lento: intervalo > 1.5 x la mediana
+
+    private final int capacity;
+    private final int mask;
+
+    // Columnas del buffer circular (una entrada por frame)
+    private final long[] intervalNanos; // Tiempo entre este frame y el anterior (vsync)
+    private final long[] updateNanos;   // Ticks de simulación
+    private final long[] lockNanos;     // Espera en lockCanvas
+    private final long[] drawNanos;     // Dibujo
+    private final long[] postNanos;     // unlockCanvasAndPost
+    private final int[] ticks;
+    private final int[] particles, groups, playerBlocks, popups;
+    private final long[] gcDelta;       // Recolecciones desde la muestra anterior (0 sin muestra)
+    private final long[] allocDelta;    // Bytes reservados desde la muestra anterior
+    private final int[] qualityTier;    // Nivel de QualityGovernor con el que se dibujó
+
+    private volatile long written = 0; // Frames publicados
+
+    // Frame en curso (solo lo toca el escritor)
+    private long lastFrameTimeNanos = 0;
+    private long curInterval, curUpdate, curLock, curDraw, curPost;
+    private int curTicks, curParticles, curGroups, curPlayerBlocks, curPopups;
+    private long curGc, curAlloc;
+    private int curTier;
+    private long lastGcCount = -1, lastAllocBytes = -1;
+
+    // Copias de trabajo del lector
+    private final long[] scratchA, scratchB;
+    private final Stats stats = new Stats();
+
+    public FrameMetrics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FrameMetrics(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity debe ser potencia de dos: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        intervalNanos = new long[capacity];
+        updateNanos = new long[capacity];
+        lockNanos = new long[capacity];
+        drawNanos = new long[capacity];
+        postNanos = new long[capacity];
+        ticks = new int[capacity];
+        particles = new int[capacity];
+        groups = new int[capacity];
+        playerBlocks = new int[capacity];
+        popups = new int[capacity];
+        gcDelta = new long[capacity];
+        allocDelta = new long[capacity];
+        qualityTier = new int[capacity];
+        scratchA = new long[capacity];
+        scratchB = new long[capacity];
+    }
+
+    // --- Escritor (hilo del juego) ---
+
+    public void beginFrame(long frameTimeNanos) {
+        curInterval = lastFrameTimeNanos == 0 ? 0 : frameTimeNanos - lastFrameTimeNanos;
+        lastFrameTimeNanos = frameTimeNanos;
+        curUpdate = curLock = curDraw = curPost = 0;
+        curTicks = 0;
+        curGc = curAlloc = 0;
+    }
+
+    public void recordUpdate(long nanos, int tickCount) {
+        curUpdate = nanos;
+        curTicks = tickCount;
+    }
+
+    public void recordLockWait(long nanos) {
+        curLock = nanos;
+    }
+
+    public void recordDraw(long nanos) {
+        curDraw = nanos;
+    }
+
+    public void recordPost(long nanos) {
+        curPost = nanos;
+    }
+
+    public void recordCounts(int particleCount, int groupCount, int playerBlockCount, int popupCount) {
+        curParticles = particleCount;
+        curGroups = groupCount;
+        curPlayerBlocks = playerBlockCount;
+        curPopups = popupCount;
+    }
+
+    public void recordQualityTier(int tier) {
+        curTier = tier;
+    }
+
+    /**
+     * Contadores acumulados del runtime; se guarda en el frame actual la diferencia con la
+     * muestra anterior. No hace falta llamarlo cada frame: los frames sin muestra guardan 0 y
+     * las sumas de la ventana siguen siendo correctas. Un valor negativo significa "no disponible".
+     */
+    public void recordMemory(long totalGcCount, long totalAllocatedBytes) {
+        if (totalGcCount >= 0) {
+            curGc = lastGcCount < 0 ? 0 : totalGcCount - lastGcCount;
+            lastGcCount = totalGcCount;
+        }
+        if (totalAllocatedBytes >= 0) {
+            curAlloc = lastAllocBytes < 0 ? 0 : totalAllocatedBytes - lastAllocBytes;
+            lastAllocBytes = totalAllocatedBytes;
+        }
+    }
+
+    /**
+     * Publica el frame en curso
+     */
+    public void endFrame() {
+        long seq = written;
+        int i = (int) (seq & mask);
+        intervalNanos[i] = curInterval;
+        updateNanos[i] = curUpdate;
+        lockNanos[i] = curLock;
+        drawNanos[i] = curDraw;
+        postNanos[i] = curPost;
+        ticks[i] = curTicks;
+        particles[i] = curParticles;
+        groups[i] = curGroups;
+        playerBlocks[i] = curPlayerBlocks;
+        popups[i] = curPopups;
+        gcDelta[i] = curGc;
+        allocDelta[i] = curAlloc;
+        qualityTier[i] = curTier;
+        written = seq + 1; // Escritura volatile: publica la entrada
+    }
+
+    // --- Lectores ---
+
+    public long getFrameCount() {
+        return written;
+    }
+
+    /**
+     * Resumen de los últimos frames (hasta capacity). Devuelve siempre la misma instancia,
+     * que se rellena de nuevo en cada llamada.
+     */
+    public synchronized Stats computeStats() {
+        Stats s = stats;
+        long end = written;
+        long start = Math.max(0, end - capacity + 1); // La entrada siguiente puede estar escribiéndose
+
+        int n = 0;
+        for (long seq = start; seq < end; seq++) {
+            int i = (int) (seq & mask);
+            scratchA[n] = updateNanos[i] + lockNanos[i] + drawNanos[i] + postNanos[i];
+            scratchB[n] = intervalNanos[i];
+            n++;
+        }
+
+        // Descartar lo que el escritor haya sobrescrito durante la copia
+        long firstValid = Math.max(start, written - capacity + 1);
+        int overwritten = (int) Math.min(n, firstValid - start);
+        if (overwritten > 0) {
+            System.arraycopy(scratchA, overwritten, scratchA, 0, n - overwritten);
+            System.arraycopy(scratchB, overwritten, scratchB, 0, n - overwritten);
+            n -= overwritten;
+        }
+
+        long sumUpdate = 0, sumLock = 0, sumDraw = 0, sumPost = 0, sumGc = 0, sumAlloc = 0;
+        for (long seq = end - n; seq < end; seq++) {
+            int i = (int) (seq & mask);
+            sumUpdate += updateNanos[i];
+            sumLock += lockNanos[i];
+            sumDraw += drawNanos[i];
+            sumPost += postNanos[i];
+            sumGc += gcDelta[i];
+            sumAlloc += allocDelta[i];
+        }
+
+        s.frames = n;
+        s.totalFrames = end;
+        if (n == 0) {
+            s.clear();
+            return s;
+        }
+
+        s.avgUpdateMs = toMs(sumUpdate) / n;
+        s.avgLockMs = toMs(sumLock) / n;
+        s.avgDrawMs = toMs(sumDraw) / n;
+        s.avgPostMs = toMs(sumPost) / n;
+        s.gcCount = sumGc;
+        s.allocatedBytes = sumAlloc;
+        int last = (int) ((end - 1) & mask);
+        s.particles = particles[last];
+        s.groups = groups[last];
+        s.playerBlocks = playerBlocks[last];
+        s.popups = popups[last];
+        s.qualityTier = qualityTier[last];
+
+        Arrays.sort(scratchA, 0, n);
+        s.workP50Ms = toMs(percentile(scratchA, n, 0.50f));
+        s.workP95Ms = toMs(percentile(scratchA, n, 0.95f));
+        s.workP99Ms = toMs(percentile(scratchA, n, 0.99f));
+
+        // Intervalos: el primer frame no tiene anterior (intervalo 0)
+        int valid = 0;
+        for (int k = 0; k < n; k++) {
+            if (scratchB[k] > 0) scratchB[valid++] = scratchB[k];
+        }
+        if (valid > 0) {
+            Arrays.sort(scratchB, 0, valid);
+            long median = percentile(scratchB, valid, 0.50f);
+            s.intervalP50Ms = toMs(median);
+            s.intervalP95Ms = toMs(percentile(scratchB, valid, 0.95f));
+            s.intervalP99Ms = toMs(percentile(scratchB, valid, 0.99f));
+            s.maxIntervalMs = toMs(scratchB[valid - 1]);
+            long threshold = (long) (median * JANK_FACTOR);
+            int jank = 0;
+            for (int k = valid - 1; k >= 0 && scratchB[k] > threshold; k--) {
+                jank++;
+            }
+            s.jankFrames = jank;
+        } else {
+            s.intervalP50Ms = s.intervalP95Ms = s.intervalP99Ms = s.maxIntervalMs = 0;
+            s.jankFrames = 0;
+        }
+        return s;
+    }
+
+    /**
+     * Vuelca el resumen y los frames del buffer como CSV
+     */
+    public synchronized void dump(Writer out) throws IOException {
+        Stats s = computeStats();
+        out.write(String.format(Locale.US,
+                "# frames=%d total=%d work_ms p50=%.3f p95=%.3f p99=%.3f"
+                        + " interval_ms p50=%.3f p95=%.3f p99=%.3f max=%.3f jank=%d gc=%d alloc_bytes=%d"
+                + " quality_tier=%d%n",
+                s.frames, s.totalFrames, s.workP50Ms, s.workP95Ms, s.workP99Ms,
+                s.intervalP50Ms, s.intervalP95Ms, s.intervalP99Ms, s.maxIntervalMs,
+                s.jankFrames, s.gcCount, s.allocatedBytes, s.qualityTier));
+        out.write("frame,interval_ns,update_ns,lock_ns,draw_ns,post_ns,ticks,"
+                + "particles,groups,player_blocks,popups,gc,alloc_bytes,quality_tier\n");
+
+        long end = written;
+        long start = Math.max(0, end - capacity + 1);
+        StringBuilder line = new StringBuilder(128);
+        for (long seq = start; seq < end; seq++) {
+            int i = (int) (seq & mask);
+            line.setLength(0);
+            line.append(seq).append(',')
+                    .append(intervalNanos[i]).append(',')
+                    .append(updateNanos[i]).append(',')
+                    .append(lockNanos[i]).append(',')
+                    .append(drawNanos[i]).append(',')
+                    .append(postNanos[i]).append(',')
+                    .append(ticks[i]).append(',')
+                    .append(particles[i]).append(',')
+                    .append(groups[i]).append(',')
+                    .append(playerBlocks[i]).append(',')
+                    .append(popups[i]).append(',')
+                    .append(gcDelta[i]).append(',')
+                    .append(allocDelta[i]).append(',')
+                    .append(qualityTier[i]).append('\n');
+            out.write(line.toString());
+        }
+        out.flush();
+    }
+
+    private static long percentile(long[] sorted, int n, float p) {
+        int index = (int) Math.ceil(p * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, index))];
+    }
+
+    private static float toMs(long nanos) {
+        return nanos / 1_000_000f;
+    }
+
+    /**
+     * Resumen de una ventana de frames (tiempos en milisegundos)
+     */
+    static class Stats {
+        public int frames;
+        public long totalFrames;
+        public float workP50Ms, workP95Ms, workP99Ms;             // update + lock + draw + post
+        public float intervalP50Ms, intervalP95Ms, intervalP99Ms; // Entre frames
+        public float maxIntervalMs;
+        public int jankFrames;
+        public float avgUpdateMs, avgLockMs, avgDrawMs, avgPostMs;
+        public long gcCount;
+        public long allocatedBytes;
+        public int particles, groups, playerBlocks, popups; // Último frame
+        public int qualityTier;                             // Último frame (QualityGovernor)
+
+        void clear() {
+            workP50Ms = workP95Ms = workP99Ms = 0;
+            intervalP50Ms = intervalP95Ms = intervalP99Ms = maxIntervalMs = 0;
+            jankFrames = 0;
+            avgUpdateMs = avgLockMs = avgDrawMs = avgPostMs = 0;
+            gcCount = allocatedBytes = 0;
+            particles = groups = playerBlocks = popups = 0;
+            qualityTier = 0;
+        }
+    }
+}
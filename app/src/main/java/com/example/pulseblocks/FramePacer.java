@@ -0,0 +1,131 @@
+// FramePacer.java
+package com.example.pulseblocks;
+
+import android.content.Context;
+import android.os.PerformanceHintManager;
+import android.os.PowerManager;
+import android.os.Process;
+
+/**
+ * Ritmo de render consciente del consumo. La simulación sigue avanzando a su ritmo fijo, pero
+ * el frame solo se dibuja cada cierto número de vsyncs: a tope mientras hay algo moviéndose,
+ * a QUIET_FPS cuando el tablero está quieto (solo los grupos bajando a saltos) y como mucho a
+ * CONSTRAINED_FPS con el ahorro de batería activo o el dispositivo caliente. Además abre una
+ * sesión de PerformanceHintManager (ADPF) para el hilo del juego y le informa de la duración
+ * objetivo y real de cada frame, así el sistema ajusta las frecuencias de CPU sin pasarse.
+ */
+class FramePacer {
+    private static final float QUIET_FPS = 20f;
+    private static final float CONSTRAINED_FPS = 30f;
+    private static final long POWER_SAVE_CHECK_NANOS = 1_000_000_000L; // Consulta al sistema como mucho 1/s
+
+    private final PowerManager powerManager;
+    private final PerformanceHintManager hintManager;
+    private final long vsyncNanos;
+    private final float displayFps;
+
+    private volatile int thermalStatus = PowerManager.THERMAL_STATUS_NONE;
+    private final PowerManager.OnThermalStatusChangedListener thermalListener =
+            status -> thermalStatus = status;
+    private PerformanceHintManager.Session hintSession; // Solo el hilo del juego
+    private long targetWorkNanos = 0;
+    private long lastRenderNanos = 0;
+    private boolean powerSave = false;
+    private long lastPowerSaveCheckNanos = 0;
+
+    /**
+     * @param refreshRate frecuencia de la pantalla en Hz
+     */
+    public FramePacer(Context context, float refreshRate) {
+        powerManager = context.getSystemService(PowerManager.class);
+        hintManager = context.getSystemService(PerformanceHintManager.class);
+        displayFps = Math.max(1f, refreshRate);
+        vsyncNanos = (long) (1_000_000_000L / displayFps);
+    }
+
+    /**
+     * Crea la sesión de hints para el hilo actual y empieza a escuchar el estado térmico.
+     * Llamar desde el hilo del juego antes del primer frame.
+     */
+    public void start() {
+        if (powerManager != null) {
+            thermalStatus = powerManager.getCurrentThermalStatus();
+            powerManager.addThermalStatusListener(thermalListener);
+        }
+        if (hintManager != null) {
+            targetWorkNanos = vsyncNanos;
+            hintSession = hintManager.createHintSession(new int[]{Process.myTid()}, targetWorkNanos);
+        }
+    }
+
+    /**
+     * Decide si este vsync se dibuja; si no, el llamador no avanza ni dibuja y espera al siguiente
+     *
+     * @param boardQuiet   nada se mueve salvo los pasos de los grupos
+     * @param inputPending hay órdenes del jugador sin aplicar (siempre se dibujan enseguida)
+     */
+    public boolean shouldRender(long frameTimeNanos, boolean boardQuiet, boolean inputPending) {
+        if (powerManager != null && frameTimeNanos - lastPowerSaveCheckNanos > POWER_SAVE_CHECK_NANOS) {
+            powerSave = powerManager.isPowerSaveMode();
+            lastPowerSaveCheckNanos = frameTimeNanos;
+        }
+
+        long interval = vsyncNanos * frameDivisor(boardQuiet);
+        if (inputPending || lastRenderNanos == 0
+                || frameTimeNanos - lastRenderNanos >= interval - vsyncNanos / 2) {
+            lastRenderNanos = frameTimeNanos;
+            updateTarget(interval);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Vsyncs entre frames dibujados
+     */
+    private int frameDivisor(boolean boardQuiet) {
+        float fps = displayFps;
+        if (boardQuiet) {
+            fps = Math.min(fps, QUIET_FPS);
+        }
+        if (isConstrained()) {
+            fps = Math.min(fps, CONSTRAINED_FPS);
+        }
+        return Math.max(1, Math.round(displayFps / fps));
+    }
+
+    /**
+     * Ahorro de batería activo o temperatura en nivel severo o peor
+     */
+    public boolean isConstrained() {
+        return powerSave || thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE;
+    }
+
+    private void updateTarget(long intervalNanos) {
+        if (hintSession == null || intervalNanos == targetWorkNanos) return;
+        targetWorkNanos = intervalNanos;
+        hintSession.updateTargetWorkDuration(targetWorkNanos);
+    }
+
+    /**
+     * Informa al sistema de lo que ha durado el trabajo del frame dibujado
+     */
+    public void reportWork(long workNanos) {
+        if (hintSession != null && workNanos > 0) {
+            hintSession.reportActualWorkDuration(workNanos);
+        }
+    }
+
+    /**
+     * Cierra la sesión de hints y deja de escuchar el estado térmico; desde el hilo del juego
+     */
+    public void release() {
+        if (hintSession != null) {
+            hintSession.close();
+            hintSession = null;
+        }
+        if (powerManager != null) {
+            powerManager.removeThermalStatusListener(thermalListener);
+        }
+    }
+}
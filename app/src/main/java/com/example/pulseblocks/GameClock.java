@@ -0,0 +1,10 @@
+// GameClock.java
+package com.example.pulseblocks;
+
+/**
+ * Fuente de tiempo de la simulación. Se inyecta en GameSimulation en lugar de llamar a
+ * System.currentTimeMillis, así una partida puede reproducirse o ejecutarse en un test.
+ */
+interface GameClock {
+    long nowMillis();
+}
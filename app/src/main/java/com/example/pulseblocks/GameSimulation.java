@@ -0,0 +1,789 @@
+// GameSimulation.java
+package com.example.pulseblocks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Núcleo del juego sin dependencias de Android: aparición de grupos, disparos, colisión y
+ * encaje, puntuación y fin de partida. El tiempo llega de un GameClock inyectado, el azar de
+ * un Random con semilla y las órdenes del jugador de una InputQueue, así que la misma semilla
+ * con las mismas entradas reproduce la misma partida y puede ejecutarse en un test JUnit.
+ * GameView solo dibuja su estado, reenvía la entrada y avisa a la UI mediante el Listener.
+ */
+class GameSimulation {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+    // Colores de los bloques y partículas (ARGB)
+    public static final int COLOR_PLAYER = 0xFF00FFFF; // Cian
+    public static final int COLOR_GROUP = 0xFFFF0000;  // Rojo
+    public static final int COLOR_SPARK = 0xFFFFFFFF;  // Blanco
+
+    public static final int MAX_OVERHEAT = 220; // Por encima no se puede disparar
+    private static final long MIN_CLICK_INTERVAL = 250; // Milisegundos entre disparos
+    private static final int SHOT_SPEED = 8; // Píxeles por tick hacia arriba
+    private static final int[] SIDE_COLUMNS = {-1, 1, 0, 0}; // Vecinos de una celda: izquierda,
+    private static final int[] SIDE_ROWS = {0, 0, -1, 1};    // derecha, arriba y abajo
+    static final int MAX_PARTICLES = 2048;
+    private static final int INPUT_CAPACITY = 64;
+    private static final int BLOCK_PREWARM = 128;
+    private static final int POPUP_PREWARM = 8;
+
+    /**
+     * Eventos que la UI necesita conocer; se llaman desde el hilo que ejecuta tick()
+     */
+    interface Listener {
+        void onScoreChanged(int score, int level);
+
+        void onGameOver(int finalScore);
+    }
+
+    private final GameClock clock;
+    private final Random random;
+    private final InputQueue input = new InputQueue(INPUT_CAPACITY);
+    private Listener listener;
+
+    // Grid system
+    private final int blockSize;
+    private final int screenHeight;
+    private final int gridWidth, gridHeight;
+    private final int gridOffsetX, gridOffsetY;
+    private final OccupancyGrid occupancyGrid; // Celdas ocupadas por los grupos, para colisiones O(1)
+
+    // Cannon
+    private int cannonGridX; // Posición del cañón en la cuadrícula
+    private final int cannonY;
+    private final int cannonHeight;
+    private float cannonShakeX = 0; // Para animación de disparo
+    private long lastShootTime = Long.MIN_VALUE / 2;
+    private long lastTouchTime = Long.MIN_VALUE / 2; // Guardamos el tiempo del último disparo pedido
+    private int cannonOverheat = 0;
+
+    // Game objects
+    private final List<Block> playerBlocks = new ArrayList<>();
+    private final List<BlockGroup> fallingGroups = new ArrayList<>();
+    private final List<BlockGroup> dissolvingGroups = new ArrayList<>(); // Completados, solo animación
+    private final ParticleSystem particles = new ParticleSystem(MAX_PARTICLES);
+    private final List<ScorePopup> scorePopups = new ArrayList<>();
+
+    // Pools: los bloques, grupos y popups se reutilizan en lugar de dejarlos al GC
+    private final ObjectPool<Block> blockPool = new ObjectPool<>(() -> new Block(0, 0, 0, 0), 256);
+    private final ObjectPool<ScorePopup> popupPool =
+            new ObjectPool<>(() -> new ScorePopup(0, 0, null, 0, 0), 16);
+    private final ObjectPool<BlockGroup> groupPool;
+    private final ScoreTextCache scoreTexts = new ScoreTextCache(256);
+
+    // Plazos en ticks: los pasos de los grupos y la aparición del siguiente grupo. Al vencer
+    // solo marcan el trabajo pendiente, que se hace en su sitio dentro del tick.
+    private final TimingWheel timers = new TimingWheel(256, 0);
+    private final TimingWheel.Timer spawnTimer = new TimingWheel.Timer(tick -> spawnDue = true);
+    private boolean spawnDue = false;
+    private int stepsDue = 0; // Grupos con el paso vencido en este tick
+
+    // Game state
+    private int score = 0;
+    private int level = 0;
+    private long lastGroupSpawn = Long.MIN_VALUE / 2; // El primer grupo aparece en el primer tick
+    private long groupSpawnDelay = 12000;
+    private boolean running = true;
+    private long tickCount = 0;
+    private int boardVersion = 0; // Cambia cada vez que cambia el aspecto de los grupos que caen
+
+    /**
+     * @param screenWidth  ancho del área de juego en píxeles
+     * @param screenHeight alto del área de juego en píxeles (sin la zona de controles)
+     * @param blockSize    lado de un bloque en píxeles
+     * @param seed         semilla del Random de la partida
+     * @param clock        fuente de tiempo de la simulación
+     */
+    public GameSimulation(int screenWidth, int screenHeight, int blockSize, long seed, GameClock clock) {
+        this.blockSize = blockSize;
+        this.screenHeight = screenHeight;
+        this.clock = clock;
+        this.random = new Random(seed);
+
+        // Configurar sistema de cuadrícula
+        gridWidth = screenWidth / blockSize;
+        gridHeight = screenHeight / blockSize;
+        gridOffsetX = (screenWidth - (gridWidth * blockSize)) / 2;
+        gridOffsetY = 50; // Margen superior
+        occupancyGrid = new OccupancyGrid(gridWidth, gridHeight, gridOffsetX, gridOffsetY, blockSize);
+        groupPool = new ObjectPool<>(this::newGroup, 16);
+        blockPool.prewarm(BLOCK_PREWARM);
+        popupPool.prewarm(POPUP_PREWARM);
+
+        // Posicionar el cañón en el centro de la cuadrícula
+        cannonHeight = blockSize * 2;
+        cannonGridX = gridWidth / 2;
+        cannonY = screenHeight - cannonHeight - 50;
+
+        // El primer grupo aparece en el primer tick
+        timers.schedule(spawnTimer, 1);
+    }
+
+    private BlockGroup newGroup() {
+        BlockGroup group = new BlockGroup(occupancyGrid);
+        group.stepTimer = new TimingWheel.Timer(tick -> {
+            group.stepDue = true;
+            stepsDue++;
+        });
+        return group;
+    }
+
+    /**
+     * Ticks que seguro transcurren antes de que pasen más de millis milisegundos de reloj, con
+     * el reloj avanzando TICK_NANOS por tick. Los plazos se programan ahí y al vencer se
+     * confirman con el reloj; si aún no se cumplen se reintenta en el tick siguiente.
+     */
+    static long ticksBefore(long millis) {
+        return Math.max(1, millis * 1_000_000L / TICK_NANOS);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Cola donde la UI deja las órdenes del jugador; se vacía al principio de cada tick
+     */
+    public InputQueue getInput() {
+        return input;
+    }
+
+    /**
+     * Avanza la partida un tick aplicando todas las órdenes pendientes. No hace nada tras el
+     * fin de partida.
+     */
+    public void tick() {
+        tick(Long.MAX_VALUE);
+    }
+
+    /**
+     * Avanza la partida un tick aplicando solo las órdenes ocurridas no más tarde de
+     * inputDeadlineNanos (el instante real que representa este tick); las posteriores esperan
+     * a su tick.
+     */
+    public void tick(long inputDeadlineNanos) {
+        if (!running) return;
+        tickCount++;
+        long now = clock.nowMillis();
+        int versionAtStart = boardVersion;
+
+        // Marcar los plazos que vencen en este tick
+        timers.advanceTo(tickCount);
+
+        // Órdenes del jugador recibidas desde el tick anterior
+        processInput(now, inputDeadlineNanos);
+
+        // Actualizar partículas
+        particles.update(now);
+
+        // Actualizar popups de puntuación
+        updateScorePopups(now);
+
+        // Animación de desaparición de los grupos completados
+        updateDissolvingGroups(now);
+
+        // Spawner grupos
+        if (spawnDue) {
+            spawnDue = false;
+            spawnBlockGroup(now);
+        }
+
+        // Actualizar bloques del jugador
+        updatePlayerBlocks(now);
+
+        // Actualizar grupos que caen. Solo cambian al dar un paso, aparecer o recibir un
+        // disparo; si no ha pasado nada de eso no hay que recorrerlos.
+        if (stepsDue > 0 || boardVersion != versionAtStart) {
+            for (int i = 0; i < fallingGroups.size(); i++) {
+                BlockGroup group = fallingGroups.get(i);
+                if (group.stepDue) {
+                    stepGroup(group, now);
+                }
+
+                // Verificar si llegó al suelo
+                if (group.getBottomY() >= screenHeight - 6 * blockSize) {
+                    // Game Over
+                    running = false;
+                    if (listener != null) listener.onGameOver(score);
+                    return;
+                }
+            }
+        }
+
+        // Actualizar shake del cañón
+        updateCannonShake(now);
+
+        // Enfriar el cañón
+        if (cannonOverheat > 0) {
+            cannonOverheat += -1;
+        }
+    }
+
+    /**
+     * Quita el paso pendiente de un grupo que deja de caer
+     */
+    private void cancelStep(BlockGroup group) {
+        timers.cancel(group.stepTimer);
+        if (group.stepDue) {
+            group.stepDue = false;
+            stepsDue--;
+        }
+    }
+
+    private void stepGroup(BlockGroup group, long now) {
+        group.stepDue = false;
+        stepsDue--;
+        if (group.update(now)) {
+            boardVersion++;
+            timers.schedule(group.stepTimer, tickCount + ticksBefore(group.getMoveInterval()));
+        } else {
+            timers.schedule(group.stepTimer, tickCount + 1);
+        }
+    }
+
+    private void processInput(long now, long deadlineNanos) {
+        int command;
+        while ((command = input.poll(deadlineNanos)) != InputQueue.NONE) {
+            switch (command) {
+                case InputQueue.SHOOT:
+                    requestShoot(now);
+                    break;
+                case InputQueue.MOVE_LEFT:
+                    moveCannon(-1);
+                    break;
+                case InputQueue.MOVE_RIGHT:
+                    moveCannon(1);
+                    break;
+            }
+        }
+    }
+
+    private void requestShoot(long now) {
+        if (now - lastTouchTime < MIN_CLICK_INTERVAL) {
+            return;
+        }
+        lastTouchTime = now;
+        if (cannonOverheat < MAX_OVERHEAT) {
+            shootBlock(now);
+            cannonOverheat = 20 + cannonOverheat * 2;
+        }
+    }
+
+    private void moveCannon(int direction) {
+        int newGridX = cannonGridX + direction;
+        if (newGridX >= 0 && newGridX < gridWidth) {
+            cannonGridX = newGridX;
+        }
+    }
+
+    private void shootBlock(long now) {
+        int pixelX = gridToPixelX(cannonGridX);
+        Block newBlock = blockPool.acquire().reset(
+                pixelX,
+                cannonY - blockSize,
+                blockSize,
+                COLOR_PLAYER
+        );
+        newBlock.setVelocityY(-SHOT_SPEED); // Velocidad más lenta para mejor control
+        newBlock.setShootTime(now); // Para animación de trail
+        playerBlocks.add(newBlock);
+
+        // Animación de disparo del cañón
+        cannonShakeX = random.nextFloat() * 10 - 5; // Shake entre -5 y 5
+        lastShootTime = now;
+
+        // Crear efecto de partículas al disparar
+        createShootParticles(pixelX + blockSize / 2, cannonY, now);
+    }
+
+    private void updatePlayerBlocks(long now) {
+        // Compactar en el sitio conservando el orden, sin iteradores
+        int kept = 0;
+        for (int i = 0; i < playerBlocks.size(); i++) {
+            Block block = playerBlocks.get(i);
+
+            // Recalcular el tick de impacto solo si su columna ha cambiado desde la última vez
+            int column = occupancyGrid.columnOf(block.x + blockSize / 2f);
+            if (block.skylineVersion != occupancyGrid.getColumnVersion(column)) {
+                predictImpact(block, column);
+            }
+
+            block.update();
+
+            // Remover si sale de la pantalla
+            if (block.y < -blockSize) {
+                blockPool.release(block);
+                continue;
+            }
+
+            // Antes del tick previsto no puede chocar con nada
+            if (tickCount < block.impactTick) {
+                playerBlocks.set(kept++, block);
+                continue;
+            }
+
+            // Verificar colisión consultando el mapa de ocupación. Si en el tick previsto no
+            // hay impacto, impactTick queda atrás y se comprueba en cada tick.
+            BlockGroup group = occupancyGrid.findCollision(block);
+            if (group == null) {
+                playerBlocks.set(kept++, block);
+                continue;
+            }
+
+            // Detener el movimiento del bloque
+            block.setVelocityY(0);
+            snapToGroup(block, group);
+
+            // Crear efecto visual
+            createCollisionParticles(block.x + blockSize / 2f, block.y + blockSize / 2f, now);
+
+            // IMPORTANTE: Agregar el bloque al grupo (deja de estar en la lista del jugador)
+            group.addBlock(block);
+            boardVersion++;
+
+            // Si el bloque toca también otros grupos, quedan unidos en uno solo
+            group = mergeBridgedGroups(group, block);
+
+            // Verificar si forma un rectángulo completo
+            if (group.isCompleteRectangle()) {
+                completeGroup(group, now);
+            }
+        }
+        truncate(playerBlocks, kept);
+    }
+
+    /**
+     * Une al grupo los demás grupos que toca el bloque recién pegado por alguno de sus cuatro
+     * lados. En cada unión el grupo con más bloques absorbe al otro, que vuelve al pool.
+     *
+     * @return el grupo que contiene ahora el bloque
+     */
+    private BlockGroup mergeBridgedGroups(BlockGroup group, Block block) {
+        int column = occupancyGrid.columnOf(block.x);
+        int row = occupancyGrid.rowOf(block.y);
+        for (int side = 0; side < 4; side++) {
+            BlockGroup other = occupancyGrid.groupAt(column + SIDE_COLUMNS[side], row + SIDE_ROWS[side]);
+            if (other == null || other == group) continue;
+
+            BlockGroup kept = other.getBlockCount() > group.getBlockCount() ? other : group;
+            BlockGroup absorbed = kept == group ? other : group;
+            kept.absorb(absorbed);
+            cancelStep(absorbed);
+            fallingGroups.remove(absorbed);
+            groupPool.release(absorbed);
+            group = kept;
+        }
+        return group;
+    }
+
+    /**
+     * Calcula el tick en el que el disparo alcanzará la celda ocupada más baja de su columna.
+     * Se llama antes de mover el disparo en este tick, con su columna sin cambios desde
+     * entonces. Un disparo por debajo del skyline no puede chocar hasta que su borde superior
+     * pasa del 90% de esa celda (la tolerancia de OccupancyGrid.findCollision); si ya está
+     * dentro (un grupo ha aparecido o bajado encima) se comprueba en cada tick.
+     */
+    private void predictImpact(Block shot, int column) {
+        shot.skylineVersion = occupancyGrid.getColumnVersion(column);
+        int row = occupancyGrid.getLowestOccupiedRow(column);
+        if (row == OccupancyGrid.NO_ROW) {
+            shot.impactTick = Long.MAX_VALUE; // Saldrá de la pantalla sin chocar
+            return;
+        }
+
+        float distance = shot.y - occupancyGrid.rowToPixel(row);
+        float tolerance = blockSize * 0.9f;
+        if (distance < tolerance || tolerance < SHOT_SPEED) {
+            shot.impactTick = tickCount;
+            return;
+        }
+
+        // Primer movimiento k >= 1 que deja el disparo por encima de la tolerancia
+        long k = (long) ((distance - tolerance) / SHOT_SPEED) + 1;
+        while (k > 1 && distance - SHOT_SPEED * (k - 1) < tolerance) k--;
+        while (distance - SHOT_SPEED * k >= tolerance) k++;
+        shot.impactTick = tickCount + k - 1; // El movimiento 1 es el de este tick
+    }
+
+    private static void truncate(List<?> list, int size) {
+        for (int i = list.size() - 1; i >= size; i--) {
+            list.remove(i);
+        }
+    }
+
+    /**
+     * Coloca el bloque disparado en la casilla contigua al bloque del grupo más cercano
+     */
+    private void snapToGroup(Block block, BlockGroup group) {
+        // Buscar el bloque del grupo más cercano
+        Block closestBlock = group.getClosestBlock(block);
+
+        if (closestBlock != null) {
+            // Determinar dirección de aproximación
+            float dx = block.x - closestBlock.x;
+            float dy = block.y - closestBlock.y;
+
+            // Posicionar según la dirección predominante
+            if (Math.abs(dy) > Math.abs(dx)) {
+                // Aproximación vertical
+                block.x = closestBlock.x; // Misma columna
+                if (dy < 0) {
+                    // Viene desde arriba
+                    block.y = closestBlock.y - blockSize;
+                } else {
+                    // Viene desde abajo
+                    block.y = closestBlock.y + blockSize;
+                }
+            } else {
+                // Aproximación horizontal
+                block.y = closestBlock.y; // Misma fila
+                if (dx < 0) {
+                    // Viene desde la izquierda
+                    block.x = closestBlock.x - blockSize;
+                } else {
+                    // Viene desde la derecha
+                    block.x = closestBlock.x + blockSize;
+                }
+            }
+        } else {
+            // Si no hay bloque cercano, alinear a cuadrícula
+            int gridX = pixelToGridX(block.x);
+            int gridY = pixelToGridY(block.y);
+            block.x = gridToPixelX(gridX);
+            block.y = gridToPixelY(gridY);
+        }
+    }
+
+    private void completeGroup(BlockGroup group, long now) {
+        int points = group.getBlockCount() * 10;
+        score += points;
+        level = score / 500 + 1; // Subir nivel cada 500 puntos
+        cannonOverheat = 0; // Eliminar el sobrecalentamiento
+
+        // Crear popup de puntuación
+        createScorePopup(group.getCenterX(), group.getCenterY(), points, now);
+
+        // Crear explosión de partículas
+        createExplosionParticles(group.getCenterX(), group.getCenterY(), group.getColor(), now);
+
+        if (listener != null) listener.onScoreChanged(score, level);
+        cancelStep(group);
+        group.releaseFromGrid();
+        group.startDisappearWithEffect(now, random);
+        fallingGroups.remove(group);
+        dissolvingGroups.add(group);
+        boardVersion++;
+    }
+
+    private void spawnBlockGroup(long now) {
+        if (now - lastGroupSpawn > groupSpawnDelay) {
+            int[][] matrix = matrixBlockGenerator(2 + level, 2 + level);
+            int gridX = random.nextInt(Math.max(1, gridWidth - matrix[0].length)); // Dejar espacio para las formas
+            addGroup(matrix, gridX, -2, now); // Empezar fuera de la pantalla
+            lastGroupSpawn = now;
+
+            // Aumentar dificultad
+            if (groupSpawnDelay > 1000) {
+                groupSpawnDelay -= 50;
+            }
+            timers.schedule(spawnTimer, tickCount + ticksBefore(groupSpawnDelay));
+        } else {
+            timers.schedule(spawnTimer, tickCount + 1);
+        }
+    }
+
+    /**
+     * Pone a caer un grupo con la forma de matrix (matrix[x][y] == 1 ocupa esa casilla) y su
+     * esquina en la casilla (gridX, gridY). Da su primer paso en este mismo tick. Los tests lo
+     * usan para colocar grupos a mano.
+     */
+    BlockGroup addGroup(int[][] matrix, int gridX, int gridY, long now) {
+        BlockGroup group = groupPool.acquire();
+        group.reset();
+        group.setFallSpeed(0.6f + (level * 0.4f));
+
+        int pixelX = gridToPixelX(gridX);
+        int pixelY = gridToPixelY(gridY);
+
+        for (int line = 0; line < matrix.length; line++) {
+            for (int column = 0; column < matrix[0].length; column++) {
+                if (matrix[line][column] == 1) {
+                    group.addBlock(blockPool.acquire().reset(pixelX + blockSize * line,
+                            pixelY + blockSize * column, blockSize, COLOR_GROUP));
+                }
+            }
+        }
+        group.setSpawnTime(now);
+        fallingGroups.add(group);
+        boardVersion++;
+
+        // El primer paso se da en este mismo tick
+        group.stepDue = true;
+        stepsDue++;
+        return group;
+    }
+
+    public int[][] matrixBlockGenerator(int N, int M) {
+        int[][] matriz = new int[N][M];
+        // 1. Primera fila: todos 1
+        for (int j = 0; j < N; j++) {
+            matriz[j][0] = 1;
+        }
+        // 2. Segunda fila: mezcla de 1 y 0 (no todos iguales)
+        boolean valida;
+        do {
+            valida = true;
+            int suma = 0;
+            for (int j = 0; j < N; j++) {
+                matriz[j][1] = random.nextInt(2);
+                // 0 o 1
+                suma += matriz[j][1];
+            }
+            if (suma == 0 || suma == N) {
+                valida = false;
+                // todos 0 o todos 1 → repetir
+            }
+        } while (!valida);
+        // 3. Tercera fila en adelante
+        for (int i = 2; i < M; i++) {
+            for (int j = 0; j < N; j++) {
+                if (matriz[j][i - 1] == 1) {
+                    matriz[j][i] = random.nextInt(2);
+                    // 0 o 1
+                } else {
+                    matriz[j][i] = 0;
+                }
+            }
+        }
+        return matriz;
+    }
+
+    private void updateScorePopups(long now) {
+        int kept = 0;
+        for (int i = 0; i < scorePopups.size(); i++) {
+            ScorePopup popup = scorePopups.get(i);
+            popup.update(now);
+            if (popup.isDead(now)) {
+                popupPool.release(popup);
+            } else {
+                scorePopups.set(kept++, popup);
+            }
+        }
+        truncate(scorePopups, kept);
+    }
+
+    private void updateDissolvingGroups(long now) {
+        int kept = 0;
+        for (int i = 0; i < dissolvingGroups.size(); i++) {
+            BlockGroup group = dissolvingGroups.get(i);
+            if (group.updateDisappearEffect(now)) {
+                recycleGroup(group);
+            } else {
+                dissolvingGroups.set(kept++, group);
+            }
+        }
+        truncate(dissolvingGroups, kept);
+    }
+
+    /**
+     * Devuelve a los pools un grupo que ya terminó su animación y sus bloques. El grupo ya
+     * se dio de baja del mapa de ocupación al completarse.
+     */
+    private void recycleGroup(BlockGroup group) {
+        List<Block> blocks = group.getBlocks();
+        for (int i = 0; i < blocks.size(); i++) {
+            blockPool.release(blocks.get(i));
+        }
+        blocks.clear();
+        groupPool.release(group);
+    }
+
+    private void updateCannonShake(long now) {
+        long timeSinceShoot = now - lastShootTime;
+        if (timeSinceShoot < 200) { // 200ms de shake
+            float progress = timeSinceShoot / 200.0f;
+            cannonShakeX *= (1.0f - progress); // Disminuir el shake gradualmente
+        } else {
+            cannonShakeX = 0;
+        }
+    }
+
+    private void createShootParticles(float x, float y, long now) {
+        for (int i = 0; i < 8; i++) {
+            float angle = (float) (Math.PI * 2 * i / 8.0);
+            float speed = 3 + random.nextFloat() * 2;
+
+            particles.spawn(x, y,
+                    (float) Math.cos(angle) * speed,
+                    (float) Math.sin(angle) * speed - 2,
+                    COLOR_PLAYER, 1000, randomParticleSize(), now);
+        }
+    }
+
+    private void createCollisionParticles(float x, float y, long now) {
+        for (int i = 0; i < 5; i++) {
+            float angle = random.nextFloat() * (float) Math.PI * 2;
+            float speed = 2 + random.nextFloat() * 3;
+            particles.spawn(x, y,
+                    (float) Math.cos(angle) * speed,
+                    (float) Math.sin(angle) * speed,
+                    COLOR_SPARK, 500, randomParticleSize(), now);
+        }
+    }
+
+    private void createExplosionParticles(float x, float y, int color, long now) {
+        for (int i = 0; i < 15; i++) {
+            float angle = (float) (Math.PI * 2 * i / 15.0);
+            float speed = 5 + random.nextFloat() * 5;
+            particles.spawn(x, y,
+                    (float) Math.cos(angle) * speed,
+                    (float) Math.sin(angle) * speed,
+                    color, 800, randomParticleSize(), now);
+        }
+    }
+
+    private float randomParticleSize() {
+        return 3 + random.nextFloat() * 4;
+    }
+
+    private void createScorePopup(float x, float y, int points, long now) {
+        scorePopups.add(popupPool.acquire().set(x, y, scoreTexts.get(points), 1500, now));
+    }
+
+    // Convertir coordenadas de cuadrícula a píxeles
+    int gridToPixelX(int gridX) {
+        return gridOffsetX + (gridX * blockSize);
+    }
+
+    int gridToPixelY(int gridY) {
+        return gridOffsetY + (gridY * blockSize);
+    }
+
+    // Convertir píxeles a coordenadas de cuadrícula
+    private int pixelToGridX(float pixelX) {
+        return (int) ((pixelX - gridOffsetX) / blockSize);
+    }
+
+    private int pixelToGridY(float pixelY) {
+        return (int) ((pixelY - gridOffsetY) / blockSize);
+    }
+
+    // Estado de solo lectura para el render y los tests
+
+    public long nowMillis() {
+        return clock.nowMillis();
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Contador que cambia cuando aparece, baja, crece o se completa un grupo; mientras no cambie
+     * los grupos que caen se dibujan igual y el render puede reutilizar su caché
+     */
+    public int getBoardVersion() {
+        return boardVersion;
+    }
+
+    /**
+     * true si no hay nada en movimiento continuo: ni disparos en vuelo, ni partículas, ni
+     * popups, ni grupos disolviéndose, y el cañón está frío y quieto. Solo los grupos bajan, a
+     * saltos de cuadrícula.
+     */
+    public boolean isBoardQuiet() {
+        return playerBlocks.isEmpty() && particles.size() == 0 && scorePopups.isEmpty()
+                && dissolvingGroups.isEmpty() && cannonOverheat == 0 && cannonShakeX == 0;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getCannonOverheat() {
+        return cannonOverheat;
+    }
+
+    public int getCannonGridX() {
+        return cannonGridX;
+    }
+
+    /**
+     * Posición horizontal de dibujo del cañón, incluyendo el retroceso del disparo
+     */
+    public int getCannonPixelX() {
+        return gridToPixelX(cannonGridX) + (int) cannonShakeX;
+    }
+
+    public int getCannonY() {
+        return cannonY;
+    }
+
+    public int getCannonHeight() {
+        return cannonHeight;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    public int getGridOffsetX() {
+        return gridOffsetX;
+    }
+
+    public int getGridOffsetY() {
+        return gridOffsetY;
+    }
+
+    List<Block> getPlayerBlocks() {
+        return playerBlocks;
+    }
+
+    List<BlockGroup> getFallingGroups() {
+        return fallingGroups;
+    }
+
+    List<BlockGroup> getDissolvingGroups() {
+        return dissolvingGroups;
+    }
+
+    ParticleSystem getParticles() {
+        return particles;
+    }
+
+    List<ScorePopup> getScorePopups() {
+        return scorePopups;
+    }
+
+    ObjectPool<Block> getBlockPool() {
+        return blockPool;
+    }
+
+    ObjectPool<BlockGroup> getGroupPool() {
+        return groupPool;
+    }
+
+    OccupancyGrid getOccupancyGrid() {
+        return occupancyGrid;
+    }
+}
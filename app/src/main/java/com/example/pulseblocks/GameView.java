@@ -6,23 +6,22 @@ import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Paint;
-import android.graphics.Path;
-import android.graphics.RadialGradient;
-import android.graphics.RectF;
-import android.graphics.Shader;
+import android.os.Debug;
+import android.os.Looper;
+import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 import android.widget.TextView;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Random;
 
-class GameView extends SurfaceView implements SurfaceHolder.Callback {
+class GameView extends SurfaceView implements SurfaceHolder.Callback, GameSimulation.Listener {
     private GameThread gameThread;
     private final Paint paint;
     private int screenWidth, screenHeight;
@@ -30,40 +29,58 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
     private final MainActivity mainActivity;
     private TextView scoreText;
 
-    // Grid system
-    private int gridWidth, gridHeight;
-    private int gridOffsetX, gridOffsetY;
+    // Simulación: reglas y estado de la partida, sin dependencias de Android
+    private GameSimulation simulation;
+    private final ManualClock simulationClock = new ManualClock();
 
-    // Cannon
+    // HUD de Android (puntuación y barra de sobrecalentamiento): el hilo del juego publica
+    // y el hilo de UI lo aplica como mucho una vez por vsync, solo si ha cambiado
+    private final HudState hudState = new HudState();
+    private final HudUpdater hudUpdater = new HudUpdater();
+
+    // HUD dibujado dentro de la superficie por el hilo del juego (null si se usan las vistas)
+    private final SurfaceHud surfaceHud;
 
-    private int cannonGridX; // Posición del cañón en la cuadrícula
-    private int cannonY;
+    // Cannon
     private final int cannonWidth = blockSize;
     private final int cannonHeight = blockSize * 2;
-    private float cannonShakeX = 0; // Para animación de disparo
-    private long lastShootTime = 0;
-    private long lastTouchTime = 0; // Guardamos el tiempo del último toque
-    private static final long MIN_CLICK_INTERVAL = 250; // 500 ms = 0.5 segundos
-
-    // Game objects
-    private final List<Block> playerBlocks;
-    private final List<BlockGroup> fallingGroups;
-    private final List<ParticleEffect> particles;
-    private final List<ScorePopup> scorePopups;
-
-    // Game state
-    private int score = 0;
-    private int level = 0;
-    private long lastGroupSpawn = 0;
-    private long groupSpawnDelay = 12000; // 3 segundos
-    private final Random random;
-    private boolean gameRunning = true;
+    private final ShipSprite shipSprite; // Nave pre-renderizada
+    private final BlockSpriteAtlas blockAtlas; // Sprites de bloques cacheados
+    private final BlockGroupRenderer groupRenderer;
+    private final BoardLayer boardLayer; // Grupos que caen cacheados (solo el hilo del juego)
+    private final ParticleRenderer particleRenderer;
+
+    private volatile boolean gameRunning = true;
+
+    // Backend de dibujo elegido al empezar: lockHardwareCanvas (GPU) o lockCanvas (CPU)
+    private boolean hardwareCanvas;
+
+    // Render OpenGL nativo por lotes; si no se puede crear se usa el backend de Canvas
+    private static final int GL_SPRITES_PER_LAYER = 4096;
+    private boolean nativeRendering;
+
+    // Ritmo de render según el movimiento, la batería y la temperatura (null si está desactivado)
+    private FramePacer framePacer;
+
+    // Calidad visual adaptada al tiempo de frame medido (solo el hilo del juego)
+    private final QualityGovernor quality = new QualityGovernor();
+
+    // Métricas de rendimiento (null si el HUD está desactivado en opciones)
+    private final FrameMetrics frameMetrics;
+    private final MetricsOverlay metricsOverlay;
+
+    // Bucle de paso fijo: la simulación avanza a TICKS_PER_SECOND independientemente del refresco
+    private static final long TICK_NANOS = GameSimulation.TICK_NANOS;
+    private static final long MAX_FRAME_NANOS = 250_000_000L; // Evita la espiral de la muerte tras una pausa
+    private float interpolation = 1f; // Fracción de tick pendiente al dibujar (0..1)
 
     // Animation variables
-    private List<BackgroundStar> stars;
+    private static final int STAR_COUNT = 600; // Densidad del fondo (el coste por frame no depende de ella)
+    private Starfield starfield;
+    private final float[] starLayerAlpha = new float[Starfield.LAYERS];
     private float backgroundHue = 0;
-    private boolean cannonCanShot = true;
-    private int cannonOverheat = 0;
+    private final float[] backgroundHsv = {0, 0.3f, 0.1f}; // Saturación y brillo bajos
+    private final Random random; // Solo para efectos visuales, no afecta a la partida
 
     public GameView(Context context) {
         super(context);
@@ -72,15 +89,23 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
         paint = new Paint();
         paint.setAntiAlias(true);
 
-        playerBlocks = new ArrayList<>();
-        fallingGroups = new ArrayList<>();
-        particles = new ArrayList<>();
-        scorePopups = new ArrayList<>();
-        stars = new ArrayList<>();
         random = new Random();
-
-        // Crear estrellas de fondo
-        createBackgroundStars();
+        shipSprite = new ShipSprite(blockSize, cannonHeight);
+        blockAtlas = new BlockSpriteAtlas(blockSize);
+        groupRenderer = new BlockGroupRenderer(blockAtlas);
+        boardLayer = new BoardLayer(groupRenderer);
+        particleRenderer = new ParticleRenderer(GameSimulation.MAX_PARTICLES);
+        hardwareCanvas = mainActivity.isHardwareRenderingEnabled();
+        nativeRendering = mainActivity.isNativeRenderingEnabled();
+        surfaceHud = mainActivity.isSurfaceHudActive() ? new SurfaceHud(blockSize) : null;
+
+        if (mainActivity.isPerformanceHudEnabled()) {
+            frameMetrics = new FrameMetrics();
+            metricsOverlay = new MetricsOverlay(frameMetrics, blockSize / 3f);
+        } else {
+            frameMetrics = null;
+            metricsOverlay = null;
+        }
     }
 
     public void setScoreText(TextView scoreText) {
@@ -92,30 +117,49 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
         screenWidth = getWidth();
         screenHeight = getHeight() - 3 * blockSize;
 
-        // Configurar sistema de cuadrícula
-        gridWidth = screenWidth / blockSize;
-        gridHeight = screenHeight / blockSize;
-        gridOffsetX = (screenWidth - (gridWidth * blockSize)) / 2;
-        gridOffsetY = 50; // Margen superior
+        if (starfield == null) {
+            starfield = new Starfield(getWidth(), getHeight(), STAR_COUNT, random);
+        }
 
-        // Posicionar el cañón en el centro de la cuadrícula
-        cannonGridX = gridWidth / 2;
-        cannonY = screenHeight - cannonHeight - 50;
+        if (simulation == null) {
+            simulation = new GameSimulation(screenWidth, screenHeight, blockSize,
+                    System.nanoTime(), simulationClock);
+            simulation.setListener(this);
+        }
+
+        if (surfaceHud != null) {
+            surfaceHud.layout(getWidth(), getHeight());
+        }
+
+        if (mainActivity.isPowerPacingEnabled()) {
+            float refreshRate = getDisplay() != null ? getDisplay().getRefreshRate() : 60f;
+            framePacer = new FramePacer(mainActivity, refreshRate);
+        } else {
+            framePacer = null;
+        }
 
         gameThread = new GameThread();
         gameThread.start();
+        if (surfaceHud == null) {
+            hudUpdater.start();
+        }
     }
 
     @Override
     public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
         screenWidth = width;
         screenHeight = height;
+        if (surfaceHud != null) {
+            surfaceHud.layout(width, height);
+        }
     }
 
     @Override
     public void surfaceDestroyed(SurfaceHolder holder) {
         gameRunning = false;
+        hudUpdater.stop();
         if (gameThread != null) {
+            gameThread.quit();
             try {
                 gameThread.join();
             } catch (InterruptedException e) {
@@ -126,703 +170,397 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (event.getAction() == MotionEvent.ACTION_DOWN) {
-            if (event.getY() < screenHeight - 200) { // Solo disparar si no toca los botones
-                if (event.getAction() == MotionEvent.ACTION_DOWN) {
-                    long currentTime = System.currentTimeMillis();
-                    if (currentTime - lastTouchTime < MIN_CLICK_INTERVAL) {
-                        return true;
-                    }
-                    lastTouchTime = currentTime;
-                    if (cannonOverheat < 220) {
-                        shootBlock();
-                        cannonOverheat = 20 + cannonOverheat * 2;
-                    }
-                }
+        if (event.getAction() == MotionEvent.ACTION_DOWN && simulation != null) {
+            int button = surfaceHud != null ? surfaceHud.hitTest(event.getX(), event.getY()) : 0;
+            if (button != 0) {
+                moveCannon(button);
+            } else if (event.getY() < screenHeight - 200) { // Solo disparar si no toca los botones
+                // El intervalo mínimo y el sobrecalentamiento los comprueba la simulación
+                simulation.getInput().offer(InputQueue.SHOOT, event.getEventTimeNanos());
             }
         }
         return true;
     }
 
+    /**
+     * true si el HUD se dibuja en la superficie y MainActivity no debe crear las vistas
+     */
+    public boolean hasSurfaceHud() {
+        return surfaceHud != null;
+    }
+
     public int getBlockSize() {
         return blockSize;
     }
 
-    public void moveCannon(int direction) {
-        int newGridX = cannonGridX + direction;
-        if (newGridX >= 0 && newGridX < gridWidth) {
-            cannonGridX = newGridX;
-        }
+    /**
+     * Métricas por frame, o null si el HUD de rendimiento está desactivado
+     */
+    public FrameMetrics getFrameMetrics() {
+        return frameMetrics;
     }
 
-    public int[][] matrixBlockGenerator(int N, int M) {
-        Random rand = new Random();
-        int[][] matriz = new int[N][M];
-        // 1. Primera fila: todos 1
-        for (int j = 0; j < N; j++) {
-            matriz[j][0] = 1;
-        }
-        // 2. Segunda fila: mezcla de 1 y 0 (no todos iguales)
-        boolean valida;
-        do {
-            valida = true;
-            int suma = 0;
-            for (int j = 0; j < N; j++) {
-                matriz[j][1] = rand.nextInt(2);
-                // 0 o 1
-                suma += matriz[j][1];
-            }
-            if (suma == 0 || suma == N) {
-                valida = false;
-                // todos 0 o todos 1 → repetir
-            }
-        } while (!valida);
-        // 3. Tercera fila en adelante
-        for (int i = 2; i < M; i++) {
-            for (int j = 0; j < N; j++) {
-                if (matriz[j][i - 1] == 1) {
-                    matriz[j][i] = rand.nextInt(2);
-                    // 0 o 1
-                } else {
-                    matriz[j][i] = 0;
-                }
-            }
+    /**
+     * Escribe las métricas de los últimos frames como CSV
+     */
+    public void dumpMetrics(File file) throws IOException {
+        if (frameMetrics == null) return;
+        try (Writer writer = new FileWriter(file)) {
+            frameMetrics.dump(writer);
         }
-        return matriz;
     }
 
-    // Convertir coordenadas de cuadrícula a píxeles
-    private int gridToPixelX(int gridX) {
-        return gridOffsetX + (gridX * blockSize);
-    }
+    public void moveCannon(int direction) {
+        if (simulation == null) return;
+        simulation.getInput().offer(direction < 0 ? InputQueue.MOVE_LEFT : InputQueue.MOVE_RIGHT,
+                System.nanoTime());
+    }
+
+    /**
+     * Un tick de juego: la simulación con el reloj adelantado un paso y la animación de fondo
+     *
+     * @param tickTimeNanos instante real al que corresponde el tick; las órdenes posteriores
+     *                      se aplican en ticks siguientes
+     */
+    private void update(long tickTimeNanos) {
+        if (!gameRunning) return;
+
+        simulationClock.advanceNanos(TICK_NANOS);
+        simulation.tick(tickTimeNanos);
 
-    private int gridToPixelY(int gridY) {
-        return gridOffsetY + (gridY * blockSize);
+        // Actualizar animaciones de fondo
+        updateBackgroundAnimations();
     }
 
-    // Convertir píxeles a coordenadas de cuadrícula
-    private int pixelToGridX(float pixelX) {
-        return (int) ((pixelX - gridOffsetX) / blockSize);
+    /**
+     * Publica el estado del HUD; se llama una vez por frame tras los ticks
+     */
+    private void publishHud() {
+        hudState.publish(simulation.getScore(), simulation.getLevel(), simulation.getCannonOverheat());
     }
 
-    private int pixelToGridY(float pixelY) {
-        return (int) ((pixelY - gridOffsetY) / blockSize);
+    @Override
+    public void onScoreChanged(int score, int level) {
+        hudState.publish(score, level, simulation.getCannonOverheat());
     }
 
-    private void shootBlock() {
-        int pixelX = gridToPixelX(cannonGridX);
-        Block newBlock = new Block(
-                pixelX,
-                cannonY - blockSize,
-                blockSize,
-                Color.CYAN
-        );
-        newBlock.setVelocityY(-8); // Velocidad más lenta para mejor control
-        newBlock.setShootTime(System.currentTimeMillis()); // Para animación de trail
-        synchronized (playerBlocks) {
-            playerBlocks.add(newBlock);
+    @Override
+    public void onGameOver(int finalScore) {
+        // El estado final se publica antes de marcar el fin: quien lea gameRunning == false
+        // verá después la puntuación y el sobrecalentamiento definitivos
+        publishHud();
+        gameRunning = false;
+        if (frameMetrics != null) {
+            saveMetricsInBackground();
         }
-
-        // Animación de disparo del cañón
-        cannonShakeX = random.nextFloat() * 10 - 5; // Shake entre -5 y 5
-        lastShootTime = System.currentTimeMillis();
-
-        // Crear efecto de partículas al disparar
-        createShootParticles(pixelX + blockSize / 2, cannonY);
+        mainActivity.runOnUiThread(() -> {
+            mainActivity.showGameOver(finalScore);
+        });
     }
 
-    private void createShootParticles(float x, float y) {
-        for (int i = 0; i < 8; i++) {
-            float angle = (float) (Math.PI * 2 * i / 8.0);
-            float speed = 3 + random.nextFloat() * 2;
-
-            synchronized (particles) {
-                particles.add(new ParticleEffect(x, y,
-                        (float) Math.cos(angle) * speed,
-                        (float) Math.sin(angle) * speed - 2,
-                        Color.CYAN, 1000));
+    private void saveMetricsInBackground() {
+        File dir = mainActivity.getExternalFilesDir(null);
+        if (dir == null) return;
+        File file = new File(dir, "frame_metrics_" + System.currentTimeMillis() + ".csv");
+        new Thread(() -> {
+            try {
+                dumpMetrics(file);
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-        }
+        }, "MetricsDump").start();
     }
 
-    private void createBackgroundStars() {
-        int totalStars = 150; // Más estrellas para mayor densidad
-
-        for (int i = 0; i < totalStars; i++) {
-            float x = random.nextFloat() * 1080; // ancho de pantalla aproximado
-            float y = random.nextFloat() * 1920; // alto de pantalla aproximado
-            float size = random.nextFloat() * 2.5f + 0.5f; // tamaño variable
-            float speed = random.nextFloat() * 0.3f; // velocidad de movimiento
-            int color = Color.rgb(
-                    (int) (50 + random.nextFloat() * 205), // rojo
-                    (int) (150 + random.nextFloat() * 105), // verde
-                    255 // azul neón
-            );
+    private void updateBackgroundAnimations() {
+        // Rotar el color de fondo lentamente
+        backgroundHue += 0.5f;
+        if (backgroundHue > 360) backgroundHue = 0;
 
-            stars.add(new BackgroundStar(x, y, size, speed, color));
-        }
+        // Desplazar las capas de estrellas
+        starfield.update();
     }
 
-    private void spawnBlockGroup() {
-        if (System.currentTimeMillis() - lastGroupSpawn > groupSpawnDelay) {
-            BlockGroup group = createRandomGroup();
-            fallingGroups.add(group);
-            lastGroupSpawn = System.currentTimeMillis();
+    public void draw(Canvas canvas) {
+        super.draw(canvas);
+        if (canvas == null || simulation == null) return;
 
-            // Aumentar dificultad
-            if (groupSpawnDelay > 1000) {
-                groupSpawnDelay -= 50;
-            }
-        }
-    }
+        // Capas: fondo (color, líneas y estrellas ya pre-renderizadas), tablero cacheado con los
+        // grupos que caen y efectos dinámicos, que se dibujan cada frame
 
-    private BlockGroup createRandomGroup() {
-        int[][] matrix = matrixBlockGenerator(2 + level, 2 + level);
-        int gridX = random.nextInt(Math.max(1, gridWidth - matrix[0].length)); // Dejar espacio para las formas
-        //int type = random.nextInt(4); // 4 tipos diferentes
+        // Tiempo de simulación del frame, común a todas las animaciones ambientales
+        long now = simulation.nowMillis();
 
-        BlockGroup group = new BlockGroup();
-        group.setFallSpeed(0.6f + (level * 0.4f));
+        // Fondo animado con gradiente dinámico
+        drawAnimatedBackground(canvas, now);
 
-        int pixelX = gridToPixelX(gridX);
-        int pixelY = gridToPixelY(-2); // Empezar fuera de la pantalla
+        // Dibujar estrellas de fondo
+        drawBackgroundStars(canvas);
 
-        for (int line = 0; line < matrix.length; line++) {
-            for (int column = 0; column < matrix[0].length; column++) {
-                if (matrix[line][column] == 1) {
-                    group.addBlock(new Block(pixelX + blockSize * line, pixelY + blockSize * column, blockSize, Color.RED));
-                }
-            }
-        }
-        return group;
-    }
+        // Dibujar cañón con animaciones
+        drawAnimatedCannon(canvas);
 
-    private void update() {
-        if (!gameRunning) return;
+        // Dibujar líneas de cuadrícula con efectos
+        // drawAnimatedGrid(canvas);
 
-        // Actualizar animaciones de fondo
-        updateBackgroundAnimations();
+        // Dibujar bloques del jugador con trails
+        drawPlayerBlocks(canvas);
 
-        // Actualizar partículas
-        updateParticles();
+        // Dibujar grupos que caen: su resplandor animado y encima la capa cacheada, en el mismo
+        // orden que BlockGroupRenderer.draw()
+        for (BlockGroup group : simulation.getFallingGroups()) {
+            groupRenderer.drawAnimated(canvas, paint, group, now);
+        }
+        boardLayer.draw(canvas, simulation);
+        for (BlockGroup group : simulation.getDissolvingGroups()) {
+            groupRenderer.draw(canvas, paint, group, now);
+        }
 
-        // Actualizar popups de puntuación
-        updateScorePopups();
+        // Dibujar efectos de partículas
+        drawParticles(canvas);
 
-        // Spawner grupos
-        spawnBlockGroup();
+        // Dibujar popups de puntuación
+        drawScorePopups(canvas);
 
-        updateOverheatBar();
+        // Dibujar efectos de pulso
+        if (quality.areAmbientEffectsEnabled()) {
+            drawEnhancedPulseEffect(canvas, now);
+        }
 
-        // Actualizar bloques del jugador
-        synchronized (playerBlocks) {
-            Iterator<Block> playerIterator = playerBlocks.iterator();
-            while (playerIterator.hasNext()) {
-                Block block = playerIterator.next();
-                block.update();
+        // Dibujar el cañón (siempre al final para que esté encima)
 
-                // Remover si sale de la pantalla
-                if (block.y < -blockSize) {
-                    playerIterator.remove();
-                    continue;
-                }
+        // HUD de la partida
+        if (surfaceHud != null) {
+            surfaceHud.draw(canvas, simulation.getScore(), simulation.getLevel(),
+                    simulation.getCannonOverheat());
+        }
 
-                // Verificar colisión con grupos que caen
-                for (BlockGroup group : fallingGroups) {
-                    if (group.checkCollision(block)) {
-                        // Detener el movimiento del bloque
-                        block.setVelocityY(0);
-
-                        // Buscar el bloque del grupo más cercano
-                        Block closestBlock = group.getClosestBlock(block);
-
-                        if (closestBlock != null) {
-                            // Determinar dirección de aproximación
-                            float dx = block.x - closestBlock.x;
-                            float dy = block.y - closestBlock.y;
-
-                            // Posicionar según la dirección predominante
-                            if (Math.abs(dy) > Math.abs(dx)) {
-                                // Aproximación vertical
-                                block.x = closestBlock.x; // Misma columna
-                                if (dy < 0) {
-                                    // Viene desde arriba
-                                    block.y = closestBlock.y - blockSize;
-                                } else {
-                                    // Viene desde abajo
-                                    block.y = closestBlock.y + blockSize;
-                                }
-                            } else {
-                                // Aproximación horizontal
-                                block.y = closestBlock.y; // Misma fila
-                                if (dx < 0) {
-                                    // Viene desde la izquierda
-                                    block.x = closestBlock.x - blockSize;
-                                } else {
-                                    // Viene desde la derecha
-                                    block.x = closestBlock.x + blockSize;
-                                }
-                            }
-                        } else {
-                            // Si no hay bloque cercano, alinear a cuadrícula
-                            int gridX = pixelToGridX(block.x);
-                            int gridY = pixelToGridY(block.y);
-                            block.x = gridToPixelX(gridX);
-                            block.y = gridToPixelY(gridY);
-                        }
-
-                        // Crear efecto visual
-                        createCollisionParticles(block.x + blockSize / 2f, block.y + blockSize / 2f);
-
-                        // IMPORTANTE: Agregar el bloque al grupo
-                        group.addBlock(block);
-
-                        // Remover de la lista de bloques del jugador
-                        playerIterator.remove();
-
-                        // Verificar si forma un rectángulo completo
-                        if (group.isCompleteRectangle()) {
-                            List<BlockGroup> groupsToRemove = new ArrayList<>();
-                            int points = group.getBlockCount() * 10;
-                            score += points;
-                            level = score / 500 + 1; // Subir nivel cada 500 puntos
-                            cannonOverheat = 0; // Eliminar el sobrecalentamiento
-
-                            // Crear popup de puntuación
-                            createScorePopup(group.getCenterX(), group.getCenterY(), points);
-
-                            // Crear explosión de partículas
-                            createExplosionParticles(group.getCenterX(), group.getCenterY(), group.getColor());
-
-                            updateScore();
-                            group.startDisappearWithEffect();
-                            // Marcar para eliminar
-                            groupsToRemove.add(group);
-                            for (BlockGroup blocks : groupsToRemove) {
-                                fallingGroups.remove(blocks);
-                                System.out.println("Grupo eliminado. Grupos restantes: " + fallingGroups.size());
-                            }
-                        }
-                        // Salir del bucle de grupos (ya encontramos colisión)
-                        break;
-                    }
-                }
-            }
+        // HUD de rendimiento
+        if (metricsOverlay != null) {
+            metricsOverlay.draw(canvas, 10, 10);
         }
+    }
 
-        // Actualizar grupos que caen
-        for (BlockGroup group : fallingGroups) {
-            group.update();
-
-            // Verificar si llegó al suelo
-            if (group.getBottomY() >= screenHeight - 6 * blockSize) {
-                // Game Over
-                gameRunning = false;
-                mainActivity.runOnUiThread(() -> {
-                    mainActivity.showGameOver(score);
-                });
-                return;
+    /**
+     * Versión de draw() para el backend OpenGL, con todo como instancias de sprites. Cada capa
+     * se dibuja entera antes de la siguiente: fondo (líneas de energía, estrellas, estelas de
+     * los disparos y resplandor y efecto de completado de los grupos), bloques y nave, y
+     * efectos (conexiones de los grupos, partículas y pulsos). Las líneas y los anillos son
+     * rectángulos finos con la textura difusa, así que sus extremos quedan algo suavizados.
+     * Los textos (popups y HUD) solo se dibujan con Canvas.
+     */
+    private void drawSprites(GlSpriteRenderer sprites) {
+        sprites.beginFrame();
+
+        long now = simulation.nowMillis();
+        boolean ambient = quality.areAmbientEffectsEnabled();
+        if (ambient) {
+            for (int i = 0; i < 3; i++) {
+                float offset = energyLineOffset(i, now);
+                sprites.addLine(GlSpriteRenderer.LAYER_BACKGROUND, offset - 100, 0,
+                        offset + 100, screenHeight, 2, Color.argb(50 + i * 20, 0, 150 + i * 50, 255));
             }
         }
 
-        // Actualizar shake del cañón
-        updateCannonShake();
-    }
+        Starfield field = starfield;
+        for (int l = 0; l < Starfield.LAYERS; l++) {
+            starLayerAlpha[l] = field.getLayerAlpha(l, now);
+        }
+        int firstLayer = Starfield.LAYERS - quality.getStarLayers();
+        for (int i = 0; i < field.count; i++) {
+            if (field.layer[i] < firstLayer) continue;
+            int alpha = (int) (field.brightness[i] * starLayerAlpha[field.layer[i]] * 255);
+            sprites.add(GlSpriteRenderer.LAYER_BACKGROUND, field.x[i],
+                    field.getScreenY(i, interpolation), field.radius[i] * 2, 0,
+                    Color.argb(alpha, 255, 255, 255));
+        }
 
-    private void updateBackgroundAnimations() {
-        // Rotar el color de fondo lentamente
-        backgroundHue += 0.5f;
-        if (backgroundHue > 360) backgroundHue = 0;
+        // Nave: dos bloques apilados y el sobrecalentamiento como resplandor encima
+        float cannonCenterX = simulation.getCannonPixelX() + blockSize / 2f;
+        int cannonY = simulation.getCannonY();
+        sprites.add(GlSpriteRenderer.LAYER_BLOCKS, cannonCenterX, cannonY + blockSize / 2f,
+                blockSize, 0, GameSimulation.COLOR_PLAYER);
+        sprites.add(GlSpriteRenderer.LAYER_BLOCKS, cannonCenterX, cannonY + blockSize * 1.5f,
+                blockSize, 0, GameSimulation.COLOR_PLAYER);
+        int overheat = Math.min(255, simulation.getCannonOverheat());
+        if (overheat > 0) {
+            sprites.add(GlSpriteRenderer.LAYER_EFFECTS, cannonCenterX, cannonY + blockSize,
+                    blockSize * 2, 0, Color.argb(overheat, 255, 0, 0));
+        }
 
-        // Actualizar estrellas
-        for (BackgroundStar star : stars) {
-            star.update();
-            if (star.y > screenHeight + 10) {
-                star.y = -10;
-                star.x = random.nextFloat() * screenWidth;
-            }
+        for (Block block : simulation.getPlayerBlocks()) {
+            addTrailSprites(sprites, block, now);
+            float half = block.size / 2f;
+            int alpha = (int) (180 + 75 * block.getGlow(now));
+            sprites.add(GlSpriteRenderer.LAYER_BLOCKS,
+                    block.getInterpolatedX(interpolation) + half,
+                    block.getInterpolatedY(interpolation) + half,
+                    block.size, 0, withAlpha(block.color, alpha));
         }
-    }
 
-    private void updateParticles() {
-        synchronized (particles) {
-            Iterator<ParticleEffect> particleIterator = particles.iterator();
-            while (particleIterator.hasNext()) {
-                ParticleEffect particle = particleIterator.next();
-                particle.update();
-                if (particle.isDead()) {
-                    particleIterator.remove();
-                }
-            }
+        for (BlockGroup group : simulation.getFallingGroups()) {
+            addGroupGlowSprites(sprites, group, now);
+            addGroupSprites(sprites, group);
+        }
+        for (BlockGroup group : simulation.getDissolvingGroups()) {
+            addGroupSprites(sprites, group);
         }
-    }
 
-    private void updateScorePopups() {
-        Iterator<ScorePopup> popupIterator = scorePopups.iterator();
-        while (popupIterator.hasNext()) {
-            ScorePopup popup = popupIterator.next();
-            popup.update();
-            if (popup.isDead()) {
-                popupIterator.remove();
-            }
+        ParticleSystem particles = simulation.getParticles();
+        int particleCount = Math.min(particles.size(), quality.getParticleBudget());
+        for (int i = 0; i < particleCount; i++) {
+            float progress = (float) (now - particles.birth[i]) / particles.life[i];
+            int alpha = Math.min(255, (int) ((1.0f - progress) * 255));
+            if (alpha <= 0) continue;
+            sprites.add(GlSpriteRenderer.LAYER_EFFECTS,
+                    particles.prevX[i] + (particles.x[i] - particles.prevX[i]) * interpolation,
+                    particles.prevY[i] + (particles.y[i] - particles.prevY[i]) * interpolation,
+                    particles.size[i] * 2, 0, withAlpha(particles.color[i], alpha));
         }
-    }
 
-    private void updateCannonShake() {
-        long timeSinceShoot = System.currentTimeMillis() - lastShootTime;
-        if (timeSinceShoot < 200) { // 200ms de shake
-            float progress = timeSinceShoot / 200.0f;
-            cannonShakeX *= (1.0f - progress); // Disminuir el shake gradualmente
-        } else {
-            cannonShakeX = 0;
+        if (ambient) {
+            addPulseSprites(sprites, now);
         }
     }
 
-    private void createCollisionParticles(float x, float y) {
+    /**
+     * Estela de un disparo reciente, como drawBlockTrail()
+     */
+    private void addTrailSprites(GlSpriteRenderer sprites, Block block, long now) {
+        if (now - block.getShootTime() >= 1000) return;
+        float centerX = block.getInterpolatedX(interpolation) + block.size / 2f;
+        float blockY = block.getInterpolatedY(interpolation);
         for (int i = 0; i < 5; i++) {
-            float angle = random.nextFloat() * (float) Math.PI * 2;
-            float speed = 2 + random.nextFloat() * 3;
-            synchronized (particles) {
-                particles.add(new ParticleEffect(x, y,
-                        (float) Math.cos(angle) * speed,
-                        (float) Math.sin(angle) * speed,
-                        Color.WHITE, 500));
+            sprites.add(GlSpriteRenderer.LAYER_BACKGROUND, centerX, blockY + i * 15 + 5,
+                    block.size - 10, 10, 0, Color.argb(100 - i * 15, 0, 255, 255));
+        }
+    }
+
+    /**
+     * Parte animada de un grupo que cae (BlockGroupRenderer.drawAnimated) bajo sus bloques, y
+     * sus conexiones encima
+     */
+    private static void addGroupGlowSprites(GlSpriteRenderer sprites, BlockGroup group, long now) {
+        if (group.isDisappearing() || group.getBlocks().isEmpty()) return;
+        float left = group.getMinX();
+        float top = group.getMinY();
+
+        if (group.isCompleting()) {
+            float progress = (now - group.getCompletionStartTime()) / 500.0f;
+            if (progress <= 1.0f) {
+                sprites.add(GlSpriteRenderer.LAYER_BACKGROUND,
+                        (group.getMinX() + group.getMaxX()) / 2.0f,
+                        (group.getMinY() + group.getMaxY()) / 2.0f,
+                        progress * 200, 0, Color.argb((int) (255 * (1.0f - progress)), 255, 255, 0));
             }
         }
-    }
 
-    private void createExplosionParticles(float x, float y, int color) {
-        for (int i = 0; i < 15; i++) {
-            float angle = (float) (Math.PI * 2 * i / 15.0);
-            float speed = 5 + random.nextFloat() * 5;
-            synchronized (particles) {
-                particles.add(new ParticleEffect(x, y,
-                        (float) Math.cos(angle) * speed,
-                        (float) Math.sin(angle) * speed,
-                        color, 800));
-            }
+        // Contorno con extremos alargados medio grosor, como el trazo de extremo cuadrado
+        int glowColor = Color.argb((int) (50 * group.getGroupGlow(now) * 0.6f), 255, 255, 0);
+        float[] outline = group.getOutlineSegments();
+        int outlineCount = group.getOutlineSegmentCount();
+        for (int i = 0; i < outlineCount; i += 4) {
+            float capX = outline[i + 1] == outline[i + 3] ? 2 : 0;
+            float capY = 2 - capX;
+            sprites.addLine(GlSpriteRenderer.LAYER_BACKGROUND,
+                    left + outline[i] - capX, top + outline[i + 1] - capY,
+                    left + outline[i + 2] + capX, top + outline[i + 3] + capY, 4, glowColor);
         }
-    }
 
-    private void createScorePopup(float x, float y, int points) {
-        scorePopups.add(new ScorePopup(x, y, "+" + points, 1500));
-    }
-
-    private void updateScore() {
-        if (scoreText != null) {
-            mainActivity.runOnUiThread(() -> {
-                scoreText.setText("Score: " + score + " | Level: " + level);
-            });
+        int lineColor = Color.argb(100, 255, 255, 255);
+        float[] lines = group.getConnectionLines();
+        int lineCount = group.getConnectionLineCount();
+        for (int i = 0; i < lineCount; i += 4) {
+            sprites.addLine(GlSpriteRenderer.LAYER_EFFECTS, left + lines[i], top + lines[i + 1],
+                    left + lines[i + 2], top + lines[i + 3], 1, lineColor);
         }
     }
 
-    private void updateOverheatBar() {
-        mainActivity.runOnUiThread(() -> {
-            // Overheat bar
-            mainActivity.animateOverheatBarTo(cannonOverheat);
-        });
+    /**
+     * Ondas y pulso central, como drawEnhancedPulseEffect()
+     */
+    private void addPulseSprites(GlSpriteRenderer sprites, long now) {
+        float centerX = screenWidth / 2;
+        float centerY = screenHeight / 2;
+        for (int i = 0; i < 3; i++) {
+            float radius = AmbientWave.phase01(now, 2000f, i * 0.333f) * 200;
+            float alpha = 100 - (radius / 200.0f * 100);
+            if (alpha > 0) {
+                sprites.addRing(GlSpriteRenderer.LAYER_EFFECTS, centerX, centerY, radius, 4, 32,
+                        Color.argb((int) alpha, 0, 255 - i * 50, 255));
+            }
+        }
 
+        float centerPulse = AmbientWave.wave01(now, 314f, 0f);
+        sprites.add(GlSpriteRenderer.LAYER_EFFECTS, centerX, centerY, (10 + centerPulse * 5) * 2, 0,
+                Color.argb((int) (50 + centerPulse * 100), 255, 255, 255));
     }
 
-    public void draw(Canvas canvas) {
-        super.draw(canvas);
-        if (canvas == null) return;
-
-        // Fondo animado con gradiente dinámico
-        drawAnimatedBackground(canvas);
-
-        // Dibujar estrellas de fondo
-        drawBackgroundStars(canvas);
-
-        // Dibujar cañón con animaciones
-        drawAnimatedCannon(canvas);
-
-        // Dibujar líneas de cuadrícula con efectos
-        // drawAnimatedGrid(canvas);
-
-        // Dibujar bloques del jugador con trails
-        drawPlayerBlocks(canvas);
-
-        // Dibujar grupos que caen con efectos
-        for (BlockGroup group : fallingGroups) {
-            group.draw(canvas, paint);
+    private static void addGroupSprites(GlSpriteRenderer sprites, BlockGroup group) {
+        boolean disappearing = group.isDisappearing();
+        for (Block block : group.getBlocks()) {
+            float half = block.size / 2f;
+            if (!disappearing) {
+                sprites.add(GlSpriteRenderer.LAYER_BLOCKS, block.x + half, block.y + half,
+                        block.size, 0, block.color);
+                continue;
+            }
+            // Durante la desaparición cada bloque lleva su propia rotación, escala y alpha
+            int alpha = (int) (Math.max(0f, Math.min(1f, block.getAlpha())) * 255);
+            if (alpha == 0 || block.getScale() <= 0) continue;
+            sprites.add(GlSpriteRenderer.LAYER_BLOCKS, block.x + half, block.y + half,
+                    block.size * block.getScale(), block.getRotation(),
+                    withAlpha(block.color, alpha));
         }
+    }
 
-        // Dibujar efectos de partículas
-        drawParticles(canvas);
-
-        // Dibujar popups de puntuación
-        drawScorePopups(canvas);
-
-        // Dibujar efectos de pulso
-        drawEnhancedPulseEffect(canvas);
-
-        // Dibujar el cañón (siempre al final para que esté encima)
+    private static int withAlpha(int color, int alpha) {
+        return (color & 0x00FFFFFF) | (alpha << 24);
     }
 
-    private void drawAnimatedBackground(Canvas canvas) {
-        // Calcular colores HSV para el fondo dinámico
-        float[] hsv = new float[3];
-        hsv[0] = backgroundHue; // Hue rotando
-        hsv[1] = 0.3f; // Saturación baja para no ser muy brillante
-        hsv[2] = 0.1f; // Brillo muy bajo
+    /**
+     * Color de fondo dinámico a partir del tono que rota lentamente
+     */
+    private int backgroundColor() {
+        backgroundHsv[0] = backgroundHue;
+        return Color.HSVToColor(backgroundHsv);
+    }
 
-        int backgroundColor = Color.HSVToColor(hsv);
-        canvas.drawColor(backgroundColor);
+    private void drawAnimatedBackground(Canvas canvas, long now) {
+        canvas.drawColor(backgroundColor());
 
         // Agregar líneas de energía que se mueven
-        drawEnergyLines(canvas);
+        if (quality.areAmbientEffectsEnabled()) {
+            drawEnergyLines(canvas, now);
+        }
     }
 
-    private void drawEnergyLines(Canvas canvas) {
+    private void drawEnergyLines(Canvas canvas, long now) {
         paint.setStyle(Paint.Style.STROKE);
         paint.setStrokeWidth(2);
 
-        long time = System.currentTimeMillis();
-
         for (int i = 0; i < 3; i++) {
-            float offset = (time % 3000) / 3000.0f * screenWidth + (i * screenWidth / 3);
-            if (offset > screenWidth) offset -= screenWidth * 1.5f;
-
+            float offset = energyLineOffset(i, now);
             paint.setColor(Color.argb(50 + i * 20, 0, 150 + i * 50, 255));
-
             canvas.drawLine(offset - 100, 0, offset + 100, screenHeight, paint);
         }
     }
 
-    private void drawBackgroundStars(Canvas canvas) {
-        paint.setStyle(Paint.Style.FILL);
+    /**
+     * Posición horizontal de la línea de energía i (de 3), compartida por Canvas y OpenGL
+     */
+    private float energyLineOffset(int i, long now) {
+        float offset = AmbientWave.phase01(now, 3000f, 0) * screenWidth + (i * screenWidth / 3);
+        if (offset > screenWidth) offset -= screenWidth * 1.5f;
+        return offset;
+    }
 
-        for (BackgroundStar star : stars) {
-            int alpha = (int) (star.brightness * 255);
-            paint.setColor(Color.argb(alpha, 255, 255, 255));
-            canvas.drawCircle(star.x, star.y, star.size, paint);
-        }
+    private void drawBackgroundStars(Canvas canvas) {
+        starfield.draw(canvas, interpolation, simulation.nowMillis(), quality.getStarLayers());
     }
 
     private void drawAnimatedCannon(Canvas canvas) {
-        int cannonPixelX = gridToPixelX(cannonGridX) + (int) cannonShakeX;
-
-        //paint.setColor(Color.WHITE);
-        //paint.setStyle(Paint.Style.FILL);
-
-        int baseHeight = blockSize / 2;
-        int baseWidth = (int) (blockSize * 1.2);
-
-        int tubeWidth = blockSize - 5;
-        int tubeHeight = blockSize;
-
-        // Colores de la nave
-        int colorPrimario = Color.parseColor("#00D9FF");
-        int colorSecundario = Color.parseColor("#0080FF");
-        int colorOscuro = Color.parseColor("#003D5C");
-        int colorBrillante = Color.parseColor("#FFFFFF");
-        int colorMotor = Color.parseColor("#FF6B00");
-
-        // Cuerpo principal (fuselaje central)
-        Paint bodyPaint = new Paint();
-        bodyPaint.setAntiAlias(true);
-        bodyPaint.setShader(new LinearGradient(
-                cannonPixelX,
-                cannonY,
-                cannonPixelX + blockSize,
-                cannonY + cannonHeight,
-                new int[]{colorBrillante, colorPrimario, colorOscuro},
-                new float[]{0f, 0.4f, 1f},
-                Shader.TileMode.CLAMP
-        ));
-
-        RectF fuselaje = new RectF(
-                cannonPixelX + blockSize * 0.2f,
-                cannonY,
-                cannonPixelX + blockSize * 0.8f,
-                cannonY + cannonHeight
-        );
-        canvas.drawRoundRect(fuselaje, 20, 20, bodyPaint);
-
-        // Cabina (cockpit)
-        Paint cockpitPaint = new Paint();
-        cockpitPaint.setAntiAlias(true);
-        cockpitPaint.setShader(new RadialGradient(
-                cannonPixelX + blockSize * 0.5f,
-                cannonY + blockSize * 0.3f,
-                blockSize * 0.4f,
-                new int[]{Color.parseColor("#80FFFFFF"), Color.parseColor("#2000D9FF")},
-                new float[]{0f, 1f},
-                Shader.TileMode.CLAMP
-        ));
-
-        RectF cockpit = new RectF(
-                cannonPixelX + blockSize * 0.25f,
-                cannonY + blockSize * 0.1f,
-                cannonPixelX + blockSize * 0.75f,
-                cannonY + blockSize * 0.5f
-        );
-        canvas.drawRoundRect(cockpit, 30, 30, cockpitPaint);
-
-        // Alas principales (más dinámicas)
-        Path wingLeft = new Path();
-        wingLeft.moveTo(cannonPixelX + blockSize * 0.2f, cannonY + cannonHeight * 0.4f);
-        wingLeft.lineTo(cannonPixelX - blockSize * 0.8f, cannonY + cannonHeight * 0.5f);
-        wingLeft.lineTo(cannonPixelX - blockSize * 0.6f, cannonY + cannonHeight * 0.65f);
-        wingLeft.lineTo(cannonPixelX + blockSize * 0.2f, cannonY + cannonHeight * 0.6f);
-        wingLeft.close();
-
-        Paint wingPaint = new Paint();
-        wingPaint.setAntiAlias(true);
-        wingPaint.setShader(new LinearGradient(
-                cannonPixelX - blockSize * 0.8f,
-                cannonY + cannonHeight * 0.5f,
-                cannonPixelX + blockSize * 0.2f,
-                cannonY + cannonHeight * 0.6f,
-                new int[]{colorOscuro, colorSecundario, colorPrimario},
-                null,
-                Shader.TileMode.CLAMP
-        ));
-        canvas.drawPath(wingLeft, wingPaint);
-
-        Path wingRight = new Path();
-        wingRight.moveTo(cannonPixelX + blockSize * 0.8f, cannonY + cannonHeight * 0.4f);
-        wingRight.lineTo(cannonPixelX + blockSize * 1.8f, cannonY + cannonHeight * 0.5f);
-        wingRight.lineTo(cannonPixelX + blockSize * 1.6f, cannonY + cannonHeight * 0.65f);
-        wingRight.lineTo(cannonPixelX + blockSize * 0.8f, cannonY + cannonHeight * 0.6f);
-        wingRight.close();
-        canvas.drawPath(wingRight, wingPaint);
-
-        // Alas traseras (estabilizadores)
-        Path tailWingLeft = new Path();
-        tailWingLeft.moveTo(cannonPixelX + blockSize * 0.25f, cannonY + cannonHeight * 0.75f);
-        tailWingLeft.lineTo(cannonPixelX - blockSize * 0.3f, cannonY + cannonHeight * 0.8f);
-        tailWingLeft.lineTo(cannonPixelX - blockSize * 0.2f, cannonY + cannonHeight * 0.9f);
-        tailWingLeft.lineTo(cannonPixelX + blockSize * 0.25f, cannonY + cannonHeight * 0.85f);
-        tailWingLeft.close();
-        canvas.drawPath(tailWingLeft, wingPaint);
-
-        Path tailWingRight = new Path();
-        tailWingRight.moveTo(cannonPixelX + blockSize * 0.75f, cannonY + cannonHeight * 0.75f);
-        tailWingRight.lineTo(cannonPixelX + blockSize * 1.3f, cannonY + cannonHeight * 0.8f);
-        tailWingRight.lineTo(cannonPixelX + blockSize * 1.2f, cannonY + cannonHeight * 0.9f);
-        tailWingRight.lineTo(cannonPixelX + blockSize * 0.75f, cannonY + cannonHeight * 0.85f);
-        tailWingRight.close();
-        canvas.drawPath(tailWingRight, wingPaint);
-
-        // Motores/propulsores
-        Paint enginePaint = new Paint();
-        enginePaint.setAntiAlias(true);
-        enginePaint.setShader(new RadialGradient(
-                cannonPixelX + blockSize * 0.3f,
-                cannonY + cannonHeight - blockSize * 0.15f,
-                blockSize * 0.15f,
-                new int[]{colorMotor, colorOscuro},
-                new float[]{0.3f, 1f},
-                Shader.TileMode.CLAMP
-        ));
-
-        canvas.drawCircle(
-                cannonPixelX + blockSize * 0.3f,
-                cannonY + cannonHeight - blockSize * 0.15f,
-                blockSize * 0.15f,
-                enginePaint
-        );
-
-        enginePaint.setShader(new RadialGradient(
-                cannonPixelX + blockSize * 0.7f,
-                cannonY + cannonHeight - blockSize * 0.15f,
-                blockSize * 0.15f,
-                new int[]{colorMotor, colorOscuro},
-                new float[]{0.3f, 1f},
-                Shader.TileMode.CLAMP
-        ));
-
-        canvas.drawCircle(
-                cannonPixelX + blockSize * 0.7f,
-                cannonY + cannonHeight - blockSize * 0.15f,
-                blockSize * 0.15f,
-                enginePaint
-        );
-
-        // Detalles luminosos en el fuselaje
-        Paint glowPaint = new Paint();
-        glowPaint.setAntiAlias(true);
-        glowPaint.setColor(colorPrimario);
-        glowPaint.setStyle(Paint.Style.STROKE);
-        glowPaint.setStrokeWidth(3);
-
-        canvas.drawLine(
-                cannonPixelX + blockSize * 0.5f,
-                cannonY + blockSize * 0.6f,
-                cannonPixelX + blockSize * 0.5f,
-                cannonY + cannonHeight * 0.75f,
-                glowPaint
-        );
-
-        // Luces de navegación
-        Paint lightPaint = new Paint();
-        lightPaint.setAntiAlias(true);
-        lightPaint.setColor(Color.parseColor("#00FF88"));
-        canvas.drawCircle(cannonPixelX + blockSize * 0.15f, cannonY + cannonHeight * 0.5f, 5, lightPaint);
-
-        lightPaint.setColor(Color.parseColor("#FF0044"));
-        canvas.drawCircle(cannonPixelX + blockSize * 0.85f, cannonY + cannonHeight * 0.5f, 5, lightPaint);
-
-        // Paneles de armadura (detalles)
-        Paint panelPaint = new Paint();
-        panelPaint.setAntiAlias(true);
-        panelPaint.setColor(Color.parseColor("#40FFFFFF"));
-        panelPaint.setStyle(Paint.Style.STROKE);
-        panelPaint.setStrokeWidth(2);
-
-        RectF panel1 = new RectF(
-                cannonPixelX + blockSize * 0.3f,
-                cannonY + cannonHeight * 0.55f,
-                cannonPixelX + blockSize * 0.7f,
-                cannonY + cannonHeight * 0.65f
-        );
-        canvas.drawRoundRect(panel1, 5, 5, panelPaint);
-
-// Sobrecalentamiento del cañón
-        Paint overheatPaint = new Paint();
-        overheatPaint.setShader(new LinearGradient(
-                cannonPixelX,
-                cannonY,
-                cannonPixelX,
-                cannonY + cannonHeight,
-                Color.argb(cannonOverheat, 255, 0, 0),                                  // Color inicial (arriba)
-                Color.TRANSPARENT,
-                Shader.TileMode.CLAMP
-        ));
-        if (cannonOverheat > 0) {
-            cannonOverheat += -1;
-        }
-        canvas.drawCircle(
-                cannonPixelX + baseWidth / 2f,
-                cannonY + cannonHeight - tubeHeight,
-                baseWidth,
-                overheatPaint
-        );
-
-// Líneas de energía alrededor del tubo
-        Paint glowPaint2 = new Paint();
-        glowPaint2.setColor(Color.CYAN);
-        glowPaint2.setAlpha(120);
-        glowPaint2.setStrokeWidth(4f);
-        for (int i = -2; i <= 2; i++) {
-            canvas.drawLine(
-                    cannonPixelX - 10,
-                    cannonY + tubeHeight / 2f + i * 10,
-                    cannonPixelX,
-                    cannonY + tubeHeight / 2f + i * 10,
-                    glowPaint2
-            );
-            canvas.drawLine(
-                    cannonPixelX + tubeWidth,
-                    cannonY + tubeHeight / 2f + i * 10,
-                    cannonPixelX + tubeWidth + 10,
-                    cannonY + tubeHeight / 2f + i * 10,
-                    glowPaint2
-            );
-        }
-
+        shipSprite.draw(canvas, simulation.getCannonPixelX(), simulation.getCannonY(),
+                simulation.getCannonOverheat());
     }
 
     private void drawCannonGlow(Canvas canvas, int cannonX, int cannonY) {
@@ -845,34 +583,42 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
     }
 
     private void drawPlayerBlocks(Canvas canvas) {
-        synchronized (playerBlocks) {
-            for (Block block : playerBlocks) {
-                // Dibujar trail del bloque
-                drawBlockTrail(canvas, block);
-
-                // Dibujar el bloque con efecto de brillo
-                block.drawWithGlow(canvas, paint);
+        long now = simulation.nowMillis();
+        for (Block block : simulation.getPlayerBlocks()) {
+            // Dibujar trail del bloque
+            drawBlockTrail(canvas, block);
+
+            // Dibujar el bloque con efecto de brillo (sprite cacheado por fase); en calidad baja
+            // sin el halo difuminado
+            float x = block.getInterpolatedX(interpolation);
+            float y = block.getInterpolatedY(interpolation);
+            if (quality.isBlockGlowEnabled()) {
+                blockAtlas.drawGlow(canvas, block.color, block.size, x, y, block.getGlow(now));
+            } else {
+                blockAtlas.drawPlain(canvas, block.color, block.size, x, y);
             }
         }
     }
 
     private void drawBlockTrail(Canvas canvas, Block block) {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = simulation.nowMillis();
         long shootTime = block.getShootTime();
 
         if (currentTime - shootTime < 1000) { // Trail por 1 segundo
             paint.setStyle(Paint.Style.FILL);
+            float blockX = block.getInterpolatedX(interpolation);
+            float blockY = block.getInterpolatedY(interpolation);
 
             // Crear trail de partículas
             for (int i = 0; i < 5; i++) {
-                float trailY = block.y + (i * 15);
+                float trailY = blockY + (i * 15);
                 int alpha = 100 - (i * 15);
 
                 if (alpha > 0) {
                     paint.setColor(Color.argb(alpha, 0, 255, 255));
                     canvas.drawRect(
-                            block.x + 5, trailY,
-                            block.x + block.size - 5, trailY + 10,
+                            blockX + 5, trailY,
+                            blockX + block.size - 5, trailY + 10,
                             paint
                     );
                 }
@@ -881,34 +627,32 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
     }
 
     private void drawParticles(Canvas canvas) {
-        paint.setStyle(Paint.Style.FILL);
-
-        synchronized (particles) {
-            for (ParticleEffect particle : particles) {
-                particle.draw(canvas, paint);
-            }
-        }
+        particleRenderer.draw(canvas, paint, simulation.getParticles(), interpolation,
+                simulation.nowMillis(), quality.getParticleBudget());
     }
 
     private void drawScorePopups(Canvas canvas) {
         paint.setTextAlign(Paint.Align.CENTER);
         paint.setTypeface(null);
 
-        for (ScorePopup popup : scorePopups) {
-            popup.draw(canvas, paint);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setTextSize(24);
+        for (ScorePopup popup : simulation.getScorePopups()) {
+            if (popup.alpha > 0) {
+                int currentAlpha = Math.max(0, (int) popup.alpha);
+                paint.setColor(Color.argb(currentAlpha, 255, 255, 0));
+                canvas.drawText(popup.text, 0, popup.text.length, popup.x, popup.y + popup.offsetY, paint);
+            }
         }
     }
 
-    private void drawEnhancedPulseEffect(Canvas canvas) {
+    private void drawEnhancedPulseEffect(Canvas canvas, long now) {
         paint.setStyle(Paint.Style.STROKE);
         paint.setStrokeWidth(4);
 
-        // Múltiples ondas de pulso
-        long time = System.currentTimeMillis();
-
+        // Múltiples ondas de pulso, cada una a un tercio de ciclo de la anterior
         for (int i = 0; i < 3; i++) {
-            float phaseOffset = i * 666; // Desfase entre ondas
-            float radius = ((time + phaseOffset) % 2000) / 2000.0f * 200;
+            float radius = AmbientWave.phase01(now, 2000f, i * 0.333f) * 200;
             float alpha = 100 - (radius / 200.0f * 100);
 
             if (alpha > 0) {
@@ -919,13 +663,18 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
         // Efecto de energía en el centro
         paint.setStyle(Paint.Style.FILL);
-        float centerPulse = (float) (Math.sin(time * 0.02) * 0.5 + 0.5);
+        float centerPulse = AmbientWave.wave01(now, 314f, 0f);
         int centerAlpha = (int) (50 + centerPulse * 100);
         paint.setColor(Color.argb(centerAlpha, 255, 255, 255));
         canvas.drawCircle(screenWidth / 2, screenHeight / 2, 10 + centerPulse * 5, paint);
     }
 
     private void drawGrid(Canvas canvas) {
+        int gridWidth = simulation.getGridWidth();
+        int gridHeight = simulation.getGridHeight();
+        int gridOffsetX = simulation.getGridOffsetX();
+        int gridOffsetY = simulation.getGridOffsetY();
+
         // Dibujar cuadrícula de referencia (muy sutil)
         paint.setColor(Color.argb(20, 255, 255, 255));
         paint.setStyle(Paint.Style.STROKE);
@@ -933,179 +682,268 @@ class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
         // Líneas verticales
         for (int x = 0; x <= gridWidth; x++) {
-            int pixelX = gridToPixelX(x);
+            int pixelX = simulation.gridToPixelX(x);
             canvas.drawLine(pixelX, gridOffsetY, pixelX, screenHeight - 150, paint);
         }
 
         // Líneas horizontales
         for (int y = 0; y <= gridHeight; y++) {
-            int pixelY = gridToPixelY(y);
+            int pixelY = simulation.gridToPixelY(y);
             if (pixelY < screenHeight - 150) {
                 canvas.drawLine(gridOffsetX, pixelY, gridOffsetX + (gridWidth * blockSize), pixelY, paint);
             }
         }
     }
 
-    private void drawPulseEffect(Canvas canvas) {
+    private void drawPulseEffect(Canvas canvas, long now) {
         // Efecto visual simple de pulso
         paint.setColor(Color.argb(30, 0, 255, 255));
         paint.setStyle(Paint.Style.STROKE);
         paint.setStrokeWidth(3);
 
-        long time = System.currentTimeMillis();
-        float pulseRadius = (time % 1000) / 1000.0f * 100;
+        float pulseRadius = AmbientWave.phase01(now, 1000f, 0) * 100;
         canvas.drawCircle(screenWidth / 2, screenHeight / 2, pulseRadius, paint);
     }
 
-    private class GameThread extends Thread {
+    /**
+     * Contador acumulado del runtime de ART, o -1 si no está disponible
+     */
+    private static long readRuntimeStat(String name) {
+        String value = Debug.getRuntimeStat(name);
+        if (value == null) return -1;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Aplica el HudState a las vistas en el hilo de UI, sincronizado con el vsync. Sin cambios
+     * no toca las vistas ni reserva memoria.
+     */
+    private class HudUpdater implements Choreographer.FrameCallback {
+        private long applied = HudState.pack(0, 0, 0); // Solo hilo de UI
+        private boolean posted = false;
+
+        void start() {
+            if (posted) return;
+            posted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void stop() {
+            if (!posted) return;
+            posted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
         @Override
-        public void run() {
-            while (gameRunning) {
-                Canvas canvas = null;
-                try {
-                    canvas = getHolder().lockCanvas();
-                    synchronized (getHolder()) {
-                        update();
-                        draw(canvas);
-                    }
-                } finally {
-                    if (canvas != null) {
-                        getHolder().unlockCanvasAndPost(canvas);
-                    }
-                }
+        public void doFrame(long frameTimeNanos) {
+            // Leer gameRunning antes que el estado: si la partida ya ha terminado, la lectura
+            // siguiente es la final y se aplica antes de dejar de repetir el callback
+            boolean running = gameRunning;
+            long snapshot = hudState.snapshot();
+            if (snapshot != applied) {
+                apply(snapshot);
+                applied = snapshot;
+            }
 
-                try {
-                    Thread.sleep(16); // ~60 FPS
-                } catch (InterruptedException e) {
-                    break;
-                }
+            if (running) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else {
+                posted = false;
             }
         }
-    }
-}
 
-class BackgroundStar {
-    public float x, y;
-    public float size;
-    public float brightness;
-    public float speed;
-    public int color;
-    private float alpha; // para parpadeo
-    private boolean fading;
-
-    public BackgroundStar(float x, float y, float brightness, float speed, int color) {
-        this.x = x;
-        this.y = y;
-        this.brightness = brightness;
-        this.size = brightness * 2;
-        this.speed = 0.5f + brightness;
-        this.color = color;
-        this.alpha = 0.5f + new Random().nextFloat() * 0.5f;
-        this.fading = new Random().nextBoolean();
+        private void apply(long snapshot) {
+            int score = HudState.score(snapshot);
+            int level = HudState.level(snapshot);
+            if (scoreText != null
+                    && (score != HudState.score(applied) || level != HudState.level(applied))) {
+                scoreText.setText("Score: " + score + " | Level: " + level);
+            }
+            int overheat = HudState.overheat(snapshot);
+            if (overheat != HudState.overheat(applied)) {
+                mainActivity.animateOverheatBarTo(overheat);
+            }
+        }
     }
 
-    public void update() {
-        y += speed;
-        if (y > 1920) y = 0;
+    /**
+     * Hilo del juego con bucle de paso fijo: Choreographer marca el ritmo de los frames (vsync),
+     * la simulación avanza en ticks de TICK_NANOS con un acumulador y el render interpola entre
+     * los dos últimos estados, así la velocidad del juego no depende del refresco de la pantalla.
+     */
+    private class GameThread extends Thread implements Choreographer.FrameCallback {
+        private volatile Looper looper;
+        private long lastFrameNanos = 0;
+        private long accumulator = 0;
+        private GlSpriteRenderer glRenderer; // Solo se toca desde este hilo
+        private FramePacer pacer;
+        private long lastMemorySampleNanos = 0;
 
-        // Efecto de parpadeo
-        brightness += (float) ((Math.random() - 0.5) * 0.1);
-        brightness = Math.max(0.1f, Math.min(1.0f, brightness));
-        if (fading) {
-            alpha -= 0.01f;
-            if (alpha <= 0.3f) fading = false;
-        } else {
-            alpha += 0.01f;
-            if (alpha >= 1f) fading = true;
+        @Override
+        public void run() {
+            Looper.prepare();
+            looper = Looper.myLooper();
+            if (!gameRunning) return; // quit() llegó antes de tener Looper
+
+            pacer = framePacer;
+            if (pacer != null) pacer.start();
+
+            Choreographer.getInstance().postFrameCallback(this);
+            Looper.loop();
+            releaseGlRenderer();
+            boardLayer.release();
+            if (pacer != null) pacer.release();
         }
-    }
-}
 
-class ParticleEffect {
-    public float x, y;
-    public float velocityX, velocityY;
-    public int color;
-    public long lifeTime;
-    public long creationTime;
-    public float size;
-    public float alpha;
-
-    public ParticleEffect(float x, float y, float vx, float vy, int color, long lifeTime) {
-        this.x = x;
-        this.y = y;
-        this.velocityX = vx;
-        this.velocityY = vy;
-        this.color = color;
-        this.lifeTime = lifeTime;
-        this.creationTime = System.currentTimeMillis();
-        this.size = 3 + (float) Math.random() * 4;
-        this.alpha = 255;
-    }
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!gameRunning) {
+                looper.quit();
+                return;
+            }
 
-    public void update() {
-        x += velocityX;
-        y += velocityY;
-        velocityY += 0.1f; // Gravedad
+            // Vsync sin dibujar: el tiempo sigue acumulándose y se simula en el siguiente frame
+            if (pacer != null && !pacer.shouldRender(frameTimeNanos, simulation.isBoardQuiet(),
+                    !simulation.getInput().isEmpty())) {
+                Choreographer.getInstance().postFrameCallback(this);
+                return;
+            }
 
-        // Calcular alpha basado en el tiempo de vida
-        long elapsed = System.currentTimeMillis() - creationTime;
-        float progress = (float) elapsed / lifeTime;
-        alpha = 255 * (1.0f - progress);
-        size *= 0.98f; // Reducir tamaño gradualmente
-    }
+            if (lastFrameNanos == 0) {
+                lastFrameNanos = frameTimeNanos - TICK_NANOS;
+            }
+            long frameDelta = Math.min(frameTimeNanos - lastFrameNanos, MAX_FRAME_NANOS);
+            lastFrameNanos = frameTimeNanos;
+            accumulator += Math.max(0, frameDelta);
+
+            FrameMetrics metrics = frameMetrics;
+            if (metrics != null) metrics.beginFrame(frameTimeNanos);
+            long start = System.nanoTime();
+            long updated = start, locked = start, drawn = start;
 
-    public void draw(Canvas canvas, Paint paint) {
-        if (alpha > 0) {
-            int currentAlpha = Math.max(0, (int) alpha);
-            paint.setColor(Color.argb(currentAlpha,
-                    Color.red(color), Color.green(color), Color.blue(color)));
-            canvas.drawCircle(x, y, size, paint);
+            Canvas canvas = null;
+            try {
+                // Consumir el tiempo acumulado en ticks de simulación fijos. Cada tick representa
+                // el instante frameTimeNanos - accumulator y solo aplica las órdenes anteriores.
+                // Sin cerrojos: la UI solo toca la cola de órdenes.
+                int ticks = 0;
+                while (accumulator >= TICK_NANOS && gameRunning) {
+                    accumulator -= TICK_NANOS;
+                    update(frameTimeNanos - accumulator);
+                    ticks++;
+                }
+                if (ticks > 0 && surfaceHud == null) publishHud();
+                interpolation = accumulator / (float) TICK_NANOS;
+                updated = System.nanoTime();
+                if (metrics != null) metrics.recordUpdate(updated - start, ticks);
+
+                if (glRenderer != null || attachGlRenderer()) {
+                    // Sin lockCanvas: el tiempo de presentar (eglSwapBuffers) cuenta como post
+                    locked = updated;
+                    drawSprites(glRenderer);
+                    drawn = System.nanoTime();
+                    if (!glRenderer.render(backgroundColor())) {
+                        releaseGlRenderer();
+                        nativeRendering = false;
+                    }
+                } else {
+                    canvas = lockFrameCanvas();
+                    locked = System.nanoTime();
+                    draw(canvas);
+                    drawn = System.nanoTime();
+                }
+            } finally {
+                if (canvas != null) {
+                    getHolder().unlockCanvasAndPost(canvas);
+                }
+            }
+
+            long end = System.nanoTime();
+            if (metrics != null) {
+                metrics.recordLockWait(locked - updated);
+                metrics.recordDraw(drawn - locked);
+                metrics.recordPost(end - drawn);
+                metrics.recordQualityTier(quality.getTier());
+                recordFrameState(metrics, end);
+                metrics.endFrame();
+            }
+
+            // El nivel de calidad se ajusta con lo que ha costado este frame
+            quality.onFrame(end - start, frameDelta);
+            if (pacer != null) pacer.reportWork(end - start);
+
+            if (gameRunning) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else {
+                looper.quit();
+            }
         }
-    }
 
-    public boolean isDead() {
-        return System.currentTimeMillis() - creationTime > lifeTime || alpha <= 0;
-    }
-}
+        /**
+         * Crea el renderer OpenGL sobre la superficie si está activado en opciones. Si falla se
+         * usa Canvas para el resto de la partida.
+         */
+        private boolean attachGlRenderer() {
+            if (!nativeRendering) return false;
+            GlSpriteRenderer renderer = new GlSpriteRenderer(GL_SPRITES_PER_LAYER);
+            if (!renderer.attach(getHolder().getSurface())) {
+                nativeRendering = false;
+                return false;
+            }
+            glRenderer = renderer;
+            return true;
+        }
 
-class ScorePopup {
-    public float x, y;
-    public String text;
-    public long lifeTime;
-    public long creationTime;
-    public float alpha;
-    public float offsetY;
-
-    public ScorePopup(float x, float y, String text, long lifeTime) {
-        this.x = x;
-        this.y = y;
-        this.text = text;
-        this.lifeTime = lifeTime;
-        this.creationTime = System.currentTimeMillis();
-        this.alpha = 255;
-        this.offsetY = 0;
-    }
+        private void releaseGlRenderer() {
+            if (glRenderer != null) {
+                glRenderer.release();
+                glRenderer = null;
+            }
+        }
 
-    public void update() {
-        offsetY -= 2; // Mover hacia arriba
+        /**
+         * Bloquea la superficie con el backend elegido. Si el canvas por hardware no está
+         * disponible se pasa al de software para el resto de la partida.
+         */
+        private Canvas lockFrameCanvas() {
+            SurfaceHolder holder = getHolder();
+            if (hardwareCanvas) {
+                try {
+                    return holder.lockHardwareCanvas();
+                } catch (IllegalStateException | IllegalArgumentException e) {
+                    e.printStackTrace();
+                    hardwareCanvas = false;
+                }
+            }
+            return holder.lockCanvas();
+        }
 
-        // Calcular alpha basado en el tiempo de vida
-        long elapsed = System.currentTimeMillis() - creationTime;
-        float progress = (float) elapsed / lifeTime;
-        alpha = 255 * (1.0f - progress);
-    }
+        private void recordFrameState(FrameMetrics metrics, long nowNanos) {
+            GameSimulation sim = simulation;
+            metrics.recordCounts(sim.getParticles().size(), sim.getFallingGroups().size(),
+                    sim.getPlayerBlocks().size(), sim.getScorePopups().size());
 
-    public void draw(Canvas canvas, Paint paint) {
-        if (alpha > 0) {
-            int currentAlpha = Math.max(0, (int) alpha);
-            paint.setColor(Color.argb(currentAlpha, 255, 255, 0));
-            paint.setTextSize(24);
-            canvas.drawText(text, x, y + offsetY, paint);
+            // Debug.getRuntimeStat crea Strings: leerlo cada frame inflaría el propio contador de
+            // memoria reservada, así que se muestrea al ritmo de refresco del HUD
+            if (nowNanos - lastMemorySampleNanos >= MetricsOverlay.REFRESH_NANOS) {
+                lastMemorySampleNanos = nowNanos;
+                metrics.recordMemory(readRuntimeStat("art.gc.gc-count"),
+                        readRuntimeStat("art.gc.bytes-allocated"));
+            }
         }
-    }
 
-    public boolean isDead() {
-        return System.currentTimeMillis() - creationTime > lifeTime || alpha <= 0;
+        /**
+         * Detiene el Looper del hilo; se llama desde el hilo de UI
+         */
+        void quit() {
+            Looper threadLooper = looper;
+            if (threadLooper != null) {
+                threadLooper.quit();
+            }
+        }
     }
 }
-
@@ -0,0 +1,149 @@
+// GlSpriteRenderer.java
+package com.example.pulseblocks;
+
+import android.view.Surface;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Backend OpenGL ES nativo (libpulseblocks, SpriteBatch.cpp). Cada frame se escriben las
+ * instancias de sprites en un ByteBuffer directo compartido con C++ y el Renderer nativo dibuja
+ * cada capa con una sola llamada instanciada, sin pasar por Canvas. Los segmentos y anillos
+ * también son instancias: rectángulos finos girados a lo largo de cada tramo.
+ * Todos los métodos se llaman desde el hilo del juego, que es el dueño del contexto EGL.
+ */
+class GlSpriteRenderer {
+    // Capas en orden de dibujo; cada una usa una sola textura (ver SpriteBatch.h)
+    static final int LAYER_BACKGROUND = 0; // Estrellas, líneas de energía, estelas y brillos bajo los bloques
+    static final int LAYER_BLOCKS = 1;     // Bloques y nave
+    static final int LAYER_EFFECTS = 2;    // Conexiones, partículas y pulsos
+    private static final int LAYERS = 3;
+
+    // x, y del centro, ancho, alto y rotación en grados (float) + color ARGB (int)
+    private static final int BYTES_PER_INSTANCE = 24;
+
+    private static final boolean LIBRARY_LOADED = loadLibrary();
+
+    private final int capacity; // Instancias por capa
+    private final ByteBuffer instances;
+    private final int[] counts = new int[LAYERS];
+    private long handle = 0;
+
+    public GlSpriteRenderer(int capacityPerLayer) {
+        this.capacity = capacityPerLayer;
+        instances = ByteBuffer.allocateDirect(LAYERS * capacityPerLayer * BYTES_PER_INSTANCE)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    private static boolean loadLibrary() {
+        try {
+            System.loadLibrary("pulseblocks");
+            return true;
+        } catch (UnsatisfiedLinkError e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Crea el contexto EGL sobre la superficie en el hilo actual
+     *
+     * @return false si la librería o GLES 3 no están disponibles (hay que usar Canvas)
+     */
+    public boolean attach(Surface surface) {
+        if (!LIBRARY_LOADED || surface == null) return false;
+        handle = nativeCreate(surface, capacity);
+        return handle != 0;
+    }
+
+    public void beginFrame() {
+        for (int i = 0; i < LAYERS; i++) counts[i] = 0;
+    }
+
+    /**
+     * Añade una instancia a la capa; si está llena se descarta
+     *
+     * @param size lado del sprite en píxeles
+     * @param rotation grados, alrededor del centro
+     */
+    public void add(int layer, float centerX, float centerY, float size, float rotation, int color) {
+        add(layer, centerX, centerY, size, size, rotation, color);
+    }
+
+    /**
+     * Instancia de width x height píxeles antes de girarla
+     */
+    public void add(int layer, float centerX, float centerY, float width, float height,
+                    float rotation, int color) {
+        int n = counts[layer];
+        if (n == capacity) return;
+        counts[layer] = n + 1;
+
+        int offset = (layer * capacity + n) * BYTES_PER_INSTANCE;
+        instances.putFloat(offset, centerX);
+        instances.putFloat(offset + 4, centerY);
+        instances.putFloat(offset + 8, width);
+        instances.putFloat(offset + 12, height);
+        instances.putFloat(offset + 16, rotation);
+        instances.putInt(offset + 20, color);
+    }
+
+    /**
+     * Segmento de (x0, y0) a (x1, y1) con el grosor indicado
+     */
+    public void addLine(int layer, float x0, float y0, float x1, float y1, float width, int color) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) return;
+        add(layer, (x0 + x1) / 2, (y0 + y1) / 2, length, width,
+                (float) Math.toDegrees(Math.atan2(dy, dx)), color);
+    }
+
+    /**
+     * Circunferencia como polígono de segments tramos
+     */
+    public void addRing(int layer, float centerX, float centerY, float radius, float width,
+                        int segments, int color) {
+        float step = (float) (Math.PI * 2 / segments);
+        // Cada tramo es un poco más largo que su cuerda para que no queden huecos en los vértices
+        float length = 2 * radius * (float) Math.sin(step / 2) + width;
+        for (int i = 0; i < segments; i++) {
+            float angle = step * (i + 0.5f);
+            float cos = (float) Math.cos(angle);
+            float sin = (float) Math.sin(angle);
+            add(layer, centerX + cos * radius, centerY + sin * radius, length, width,
+                    (float) Math.toDegrees(angle) + 90, color);
+        }
+    }
+
+    /**
+     * Dibuja y presenta el frame
+     *
+     * @return false si no se pudo presentar (la superficie ya no existe)
+     */
+    public boolean render(int clearColor) {
+        if (handle == 0) return false;
+        return nativeDrawFrame(handle, instances, counts[LAYER_BACKGROUND], counts[LAYER_BLOCKS],
+                counts[LAYER_EFFECTS], clearColor);
+    }
+
+    /**
+     * Libera el contexto EGL y la ventana nativa
+     */
+    public void release() {
+        if (handle != 0) {
+            nativeDestroy(handle);
+            handle = 0;
+        }
+    }
+
+    private static native long nativeCreate(Surface surface, int capacityPerLayer);
+
+    private static native boolean nativeDrawFrame(long handle, ByteBuffer instances,
+                                                  int backgroundCount, int blockCount,
+                                                  int effectCount, int clearColor);
+
+    private static native void nativeDestroy(long handle);
+}
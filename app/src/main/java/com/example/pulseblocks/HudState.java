@@ -0,0 +1,49 @@
+// HudState.java
+package com.example.pulseblocks;
+
+/**
+ * Último estado del HUD (puntuación, nivel y sobrecalentamiento) publicado por el hilo del
+ * juego. Los tres valores van empaquetados en un único long volatile, así el hilo de UI lee una
+ * instantánea coherente sin bloqueos ni reservas de memoria y puede comparar con la anterior
+ * para actualizar las vistas solo cuando algo cambia.
+ */
+class HudState {
+    private static final long MASK_16 = 0xFFFF;
+
+    private volatile long snapshot = pack(0, 0, 0);
+
+    /**
+     * Publica los valores actuales; solo escribe si han cambiado. Llamar desde el hilo del juego.
+     */
+    public void publish(int score, int level, int overheat) {
+        long packed = pack(score, level, overheat);
+        if (packed != snapshot) {
+            snapshot = packed;
+        }
+    }
+
+    /**
+     * Instantánea actual, para leer con score(), level() y overheat()
+     */
+    public long snapshot() {
+        return snapshot;
+    }
+
+    static long pack(int score, int level, int overheat) {
+        int clampedLevel = Math.max(0, Math.min(level, (int) MASK_16));
+        int clampedOverheat = Math.max(0, Math.min(overheat, (int) MASK_16));
+        return ((long) score << 32) | ((long) clampedLevel << 16) | clampedOverheat;
+    }
+
+    static int score(long snapshot) {
+        return (int) (snapshot >>> 32);
+    }
+
+    static int level(long snapshot) {
+        return (int) ((snapshot >>> 16) & MASK_16);
+    }
+
+    static int overheat(long snapshot) {
+        return (int) (snapshot & MASK_16);
+    }
+}
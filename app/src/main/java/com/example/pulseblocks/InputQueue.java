@@ -0,0 +1,95 @@
+// InputQueue.java
+package com.example.pulseblocks;
+
+/**
+ * Cola de órdenes del jugador entre un único productor (el hilo de UI) y un único consumidor
+ * (el hilo del juego), sin bloqueos: cada índice lo escribe un solo hilo y se publica con una
+ * escritura volatile. Cada orden lleva la marca de tiempo del evento, así la simulación la
+ * aplica en el tick al que corresponde aunque el frame llegue tarde.
+ */
+class InputQueue {
+    public static final int NONE = 0;
+    public static final int SHOOT = 1;
+    public static final int MOVE_LEFT = 2;
+    public static final int MOVE_RIGHT = 3;
+
+    // Marca para órdenes sin tiempo: se aplican en el siguiente tick
+    public static final long IMMEDIATE = Long.MIN_VALUE;
+
+    private final int mask;
+    private final int[] commands;
+    private final long[] timesNanos;
+
+    private volatile long writeIndex = 0; // Solo lo escribe el productor
+    private volatile long readIndex = 0;  // Solo lo escribe el consumidor
+
+    public InputQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity debe ser potencia de dos: " + capacity);
+        }
+        mask = capacity - 1;
+        commands = new int[capacity];
+        timesNanos = new long[capacity];
+    }
+
+    /**
+     * Encola una orden para el siguiente tick; si la cola está llena se descarta
+     *
+     * @return false si no había hueco
+     */
+    public boolean offer(int command) {
+        return offer(command, IMMEDIATE);
+    }
+
+    /**
+     * Encola una orden con el instante del evento (base System.nanoTime). Solo desde el productor.
+     *
+     * @return false si no había hueco
+     */
+    public boolean offer(int command, long timeNanos) {
+        long write = writeIndex;
+        if (write - readIndex > mask) return false;
+
+        int i = (int) (write & mask);
+        commands[i] = command;
+        timesNanos[i] = timeNanos;
+        writeIndex = write + 1; // Escritura volatile: publica la entrada
+        return true;
+    }
+
+    /**
+     * Saca la orden más antigua, o NONE si no hay ninguna
+     */
+    public int poll() {
+        return poll(Long.MAX_VALUE);
+    }
+
+    /**
+     * Saca la orden más antigua si ocurrió no más tarde de deadlineNanos; si no, devuelve NONE
+     * y la deja para un tick posterior. Solo desde el consumidor.
+     */
+    public int poll(long deadlineNanos) {
+        long read = readIndex;
+        if (read == writeIndex) return NONE;
+
+        int i = (int) (read & mask);
+        if (timesNanos[i] > deadlineNanos) return NONE;
+        int command = commands[i];
+        readIndex = read + 1; // Escritura volatile: libera el hueco para el productor
+        return command;
+    }
+
+    /**
+     * true si no hay órdenes pendientes. Solo desde el consumidor.
+     */
+    public boolean isEmpty() {
+        return readIndex == writeIndex;
+    }
+
+    /**
+     * Descarta las órdenes pendientes. Solo desde el consumidor.
+     */
+    public void clear() {
+        readIndex = writeIndex;
+    }
+}
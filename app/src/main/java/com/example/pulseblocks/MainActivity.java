@@ -32,6 +32,7 @@ public class MainActivity extends Activity {
     private GameOverView gameOverView;
     private RelativeLayout mainLayout;
     private ProgressBar overheatBar;
+    private ObjectAnimator overheatAnimator; // Se reutiliza en cada cambio de la barra
 
     // Estados de la aplicación
     public static final int STATE_MENU = 0;
@@ -46,6 +47,11 @@ public class MainActivity extends Activity {
     private SharedPreferences prefs;
     private float musicVolume = 0.7f;
     private float sfxVolume = 0.8f;
+    private boolean performanceHudEnabled = false;
+    private boolean hardwareRenderingEnabled = true;
+    private boolean nativeRenderingEnabled = false;
+    private boolean surfaceHudEnabled = false;
+    private boolean powerPacingEnabled = true;
 
 
     @Override
@@ -56,6 +62,11 @@ public class MainActivity extends Activity {
         prefs = getSharedPreferences("PulseBlocksPrefs", Context.MODE_PRIVATE);
         musicVolume = prefs.getFloat("musicVolume", 0.7f);
         sfxVolume = prefs.getFloat("sfxVolume", 0.8f);
+        performanceHudEnabled = prefs.getBoolean("performanceHud", false);
+        hardwareRenderingEnabled = prefs.getBoolean("hardwareRendering", true);
+        nativeRenderingEnabled = prefs.getBoolean("nativeRendering", false);
+        surfaceHudEnabled = prefs.getBoolean("surfaceHud", false);
+        powerPacingEnabled = prefs.getBoolean("powerPacing", true);
 
         // Crear layout principal
         mainLayout = new RelativeLayout(this);
@@ -130,8 +141,10 @@ public class MainActivity extends Activity {
         gameView = new GameView(this);
         mainLayout.addView(gameView);
 
-        // Crear controles
-        createGameControls();
+        // Crear controles (con el HUD en superficie los dibuja el propio juego)
+        if (!gameView.hasSurfaceHud()) {
+            createGameControls();
+        }
     }
 
     public void showOptions() {
@@ -278,6 +291,8 @@ public class MainActivity extends Activity {
         overheatBar.setMax(255);
         overheatBar.setProgress(0); // valor inicial
         overheatBar.setIndeterminate(false);
+        overheatAnimator = ObjectAnimator.ofInt(overheatBar, "progress", 0, 0);
+        overheatAnimator.setDuration(80); // duración en milisegundos
 
 // Layout params para colocarla entre los botones
         RelativeLayout.LayoutParams barParams = new RelativeLayout.LayoutParams(
@@ -329,18 +344,51 @@ public class MainActivity extends Activity {
     }
 
     public void animateOverheatBarTo(int targetValue) {
-        ObjectAnimator animator = ObjectAnimator.ofInt(
-                overheatBar,
-                "progress",
-                overheatBar.getProgress(), // desde valor actual
-                targetValue                  // hasta el valor deseado
-        );
-        animator.setDuration(80); // duración en milisegundos
-        animator.start();
+        if (overheatBar == null) return;
+        // Desde el valor actual hasta el deseado; start() reinicia la animación en curso
+        overheatAnimator.setIntValues(overheatBar.getProgress(), targetValue);
+        overheatAnimator.start();
+    }
+
+    public void setPerformanceHudEnabled(boolean enabled) {
+        this.performanceHudEnabled = enabled;
+        prefs.edit().putBoolean("performanceHud", enabled).apply();
+    }
+
+    public void setHardwareRenderingEnabled(boolean enabled) {
+        this.hardwareRenderingEnabled = enabled;
+        prefs.edit().putBoolean("hardwareRendering", enabled).apply();
+    }
+
+    public void setNativeRenderingEnabled(boolean enabled) {
+        this.nativeRenderingEnabled = enabled;
+        prefs.edit().putBoolean("nativeRendering", enabled).apply();
+    }
+
+    public void setSurfaceHudEnabled(boolean enabled) {
+        this.surfaceHudEnabled = enabled;
+        prefs.edit().putBoolean("surfaceHud", enabled).apply();
+    }
+
+    public void setPowerPacingEnabled(boolean enabled) {
+        this.powerPacingEnabled = enabled;
+        prefs.edit().putBoolean("powerPacing", enabled).apply();
+    }
+
+    /**
+     * El HUD en superficie solo existe con Canvas: el backend OpenGL no dibuja texto
+     */
+    public boolean isSurfaceHudActive() {
+        return surfaceHudEnabled && !nativeRenderingEnabled;
     }
 
     public float getMusicVolume() { return musicVolume; }
     public float getSfxVolume() { return sfxVolume; }
+    public boolean isPerformanceHudEnabled() { return performanceHudEnabled; }
+    public boolean isHardwareRenderingEnabled() { return hardwareRenderingEnabled; }
+    public boolean isNativeRenderingEnabled() { return nativeRenderingEnabled; }
+    public boolean isSurfaceHudEnabled() { return surfaceHudEnabled; }
+    public boolean isPowerPacingEnabled() { return powerPacingEnabled; }
 
     public List<Integer> getRecords() {
         return getTopScores();
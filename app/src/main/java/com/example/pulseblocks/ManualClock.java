@@ -0,0 +1,27 @@
+// ManualClock.java
+package com.example.pulseblocks;
+
+/**
+ * Reloj que solo avanza cuando se le indica; el bucle de juego lo adelanta un tick cada vez
+ * y los tests pueden ejecutar miles de ticks sin esperar tiempo real.
+ */
+class ManualClock implements GameClock {
+    private long nanos;
+
+    public ManualClock() {
+        this(0);
+    }
+
+    public ManualClock(long startMillis) {
+        this.nanos = startMillis * 1_000_000L;
+    }
+
+    public void advanceNanos(long deltaNanos) {
+        nanos += deltaNanos;
+    }
+
+    @Override
+    public long nowMillis() {
+        return nanos / 1_000_000L;
+    }
+}
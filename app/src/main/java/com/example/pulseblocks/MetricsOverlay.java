@@ -0,0 +1,68 @@
+// MetricsOverlay.java
+package com.example.pulseblocks;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import java.util.Locale;
+
+/**
+ * HUD de rendimiento dibujado encima del juego. Los textos se recalculan a partir de
+ * FrameMetrics solo cada REFRESH_NANOS para que el propio HUD apenas reserve memoria.
+ */
+class MetricsOverlay {
+    static final long REFRESH_NANOS = 500_000_000L;
+    private static final int LINES = 5;
+
+    private final FrameMetrics metrics;
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint backgroundPaint = new Paint();
+    private final String[] lines = new String[LINES];
+    private final float lineHeight;
+    private float width = 0;
+    private long lastRefreshNanos = 0;
+
+    public MetricsOverlay(FrameMetrics metrics, float textSize) {
+        this.metrics = metrics;
+        textPaint.setColor(Color.GREEN);
+        textPaint.setTextSize(textSize);
+        textPaint.setTypeface(Typeface.MONOSPACE);
+        backgroundPaint.setColor(Color.argb(160, 0, 0, 0));
+        lineHeight = textSize * 1.2f;
+        for (int i = 0; i < LINES; i++) lines[i] = "";
+    }
+
+    public void draw(Canvas canvas, float x, float y) {
+        long now = System.nanoTime();
+        if (now - lastRefreshNanos > REFRESH_NANOS) {
+            refresh();
+            lastRefreshNanos = now;
+        }
+
+        canvas.drawRect(x, y, x + width + 16, y + LINES * lineHeight + 12, backgroundPaint);
+        for (int i = 0; i < LINES; i++) {
+            canvas.drawText(lines[i], x + 8, y + (i + 1) * lineHeight, textPaint);
+        }
+    }
+
+    private void refresh() {
+        FrameMetrics.Stats s = metrics.computeStats();
+        lines[0] = String.format(Locale.US, "frame p50 %.1f  p95 %.1f  p99 %.1f ms",
+                s.workP50Ms, s.workP95Ms, s.workP99Ms);
+        lines[1] = String.format(Locale.US, "vsync p50 %.1f  p99 %.1f  max %.1f  jank %d/%d",
+                s.intervalP50Ms, s.intervalP99Ms, s.maxIntervalMs, s.jankFrames, s.frames);
+        lines[2] = String.format(Locale.US, "upd %.2f  lock %.2f  draw %.2f  post %.2f ms",
+                s.avgUpdateMs, s.avgLockMs, s.avgDrawMs, s.avgPostMs);
+        lines[3] = String.format(Locale.US, "part %d  grp %d  shots %d  pop %d",
+                s.particles, s.groups, s.playerBlocks, s.popups);
+        lines[4] = String.format(Locale.US, "gc %d  alloc %d KB  tier %d",
+                s.gcCount, s.allocatedBytes / 1024, s.qualityTier);
+
+        width = 0;
+        for (String line : lines) {
+            width = Math.max(width, textPaint.measureText(line));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// ObjectPool.java
+package com.example.pulseblocks;
+
+import java.util.function.Supplier;
+
+/**
+ * Pila de objetos libres para reutilizar en lugar de dejarlos al GC. acquire() devuelve uno
+ * liberado antes o crea uno nuevo con la fábrica; quien lo recibe es responsable de
+ * reinicializarlo y de devolverlo con release() cuando deja de usarlo. No es thread-safe: cada
+ * pool pertenece al hilo que ejecuta la simulación.
+ */
+class ObjectPool<T> {
+    private final Supplier<T> factory;
+    private Object[] free;
+    private int freeCount = 0;
+    private int created = 0;
+
+    public ObjectPool(Supplier<T> factory, int initialCapacity) {
+        this.factory = factory;
+        this.free = new Object[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Crea de antemano count objetos para no reservar memoria durante la partida
+     */
+    public void prewarm(int count) {
+        while (freeCount < count) {
+            release(factory.get());
+            created++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (freeCount > 0) {
+            T object = (T) free[--freeCount];
+            free[freeCount] = null;
+            return object;
+        }
+        created++;
+        return factory.get();
+    }
+
+    public void release(T object) {
+        if (freeCount == free.length) {
+            Object[] grown = new Object[free.length * 2];
+            System.arraycopy(free, 0, grown, 0, free.length);
+            free = grown;
+        }
+        free[freeCount++] = object;
+    }
+
+    /**
+     * Objetos libres listos para acquire()
+     */
+    public int available() {
+        return freeCount;
+    }
+
+    /**
+     * Objetos creados por el pool desde el principio
+     */
+    public int created() {
+        return created;
+    }
+}
@@ -0,0 +1,249 @@
+// OccupancyGrid.java
+package com.example.pulseblocks;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de ocupación de la cuadrícula compartido por todos los grupos que caen.
+ * Cada celda guarda el id del grupo que la ocupa (0 = libre), así la colisión de un
+ * disparo es una consulta O(1) en lugar de recorrer todos los bloques de todos los grupos.
+ * Por columna lleva además un contador de versión, que cambia con cada celda ocupada o
+ * liberada, y la fila ocupada más baja (el "skyline" que ven los disparos desde abajo).
+ * Los ids forman además una estructura union-find: cuando un disparo une dos grupos, sus ids
+ * pasan a ser un solo componente y las celdas se resuelven al id raíz con find(), sin tener
+ * que reescribirlas.
+ */
+class OccupancyGrid {
+    // Filas por encima de la pantalla: los grupos aparecen en la fila -2 y pueden crecer hacia arriba
+    private static final int ROWS_ABOVE = 16;
+    private static final int EMPTY = 0;
+    static final int NO_ROW = Integer.MIN_VALUE; // Columna sin celdas ocupadas
+
+    private final int columns, rows;
+    private final int offsetX, offsetY;
+    private final int blockSize;
+    private final int[] cells;
+
+    // Skyline por columna: se recalcula solo si la versión ha cambiado desde la última consulta
+    private final int[] columnVersions;
+    private final int[] lowestRows;
+    private final int[] lowestRowVersions;
+
+    // Tabla id -> grupo (el id 0 queda reservado para celdas vacías)
+    private BlockGroup[] groups = new BlockGroup[16];
+    private int[] freeIds = new int[16];
+    private int freeCount = 0;
+    private int nextId = 1;
+
+    // Union-find sobre los ids: padre, rango y lista circular de los ids de cada componente
+    private int[] parent = new int[16];
+    private int[] rank = new int[16];
+    private int[] nextMember = new int[16];
+
+    public OccupancyGrid(int gridWidth, int gridHeight, int offsetX, int offsetY, int blockSize) {
+        this.columns = gridWidth;
+        this.rows = gridHeight + ROWS_ABOVE;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.blockSize = blockSize;
+        this.cells = new int[columns * rows];
+        columnVersions = new int[columns];
+        lowestRows = new int[columns];
+        lowestRowVersions = new int[columns];
+        for (int c = 0; c < columns; c++) {
+            lowestRows[c] = NO_ROW;
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Da de alta un grupo y devuelve su id en la cuadrícula
+     */
+    public int register(BlockGroup group) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = nextId++;
+            if (id >= groups.length) {
+                int capacity = groups.length * 2;
+                BlockGroup[] grown = new BlockGroup[capacity];
+                System.arraycopy(groups, 0, grown, 0, groups.length);
+                groups = grown;
+                parent = Arrays.copyOf(parent, capacity);
+                rank = Arrays.copyOf(rank, capacity);
+                nextMember = Arrays.copyOf(nextMember, capacity);
+            }
+        }
+        groups[id] = group;
+        parent[id] = id;
+        rank[id] = 0;
+        nextMember[id] = id;
+        return id;
+    }
+
+    /**
+     * Id raíz del componente al que pertenece id (0 para celdas vacías)
+     */
+    int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]]; // Compresión a la mitad del camino
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Une los componentes de dos ids en uno cuyo dueño pasa a ser owner. Las celdas de ambos
+     * conservan el id que tenían y se resuelven al nuevo raíz.
+     *
+     * @return id raíz del componente unido, que owner debe usar a partir de ahora
+     */
+    public int union(int idA, int idB, BlockGroup owner) {
+        int rootA = find(idA);
+        int rootB = find(idB);
+        if (rootA != rootB) {
+            if (rank[rootA] < rank[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            parent[rootB] = rootA;
+            if (rank[rootA] == rank[rootB]) rank[rootA]++;
+
+            // Empalmar las dos listas circulares de miembros
+            int next = nextMember[rootA];
+            nextMember[rootA] = nextMember[rootB];
+            nextMember[rootB] = next;
+            groups[rootB] = null;
+        }
+        groups[rootA] = owner;
+        return rootA;
+    }
+
+    /**
+     * Recicla todos los ids del componente del grupo. Las celdas se liberan antes con vacate(),
+     * bloque a bloque, para no recorrer todo el tablero (ver BlockGroup.releaseFromGrid).
+     */
+    public void unregister(int id) {
+        if (id <= EMPTY || id >= groups.length || groups[id] == null) return;
+
+        int root = find(id);
+        int member = root;
+        do {
+            int next = nextMember[member];
+            groups[member] = null;
+            parent[member] = member;
+            rank[member] = 0;
+            nextMember[member] = member;
+            freeId(member);
+            member = next;
+        } while (member != root);
+    }
+
+    private void freeId(int id) {
+        if (freeCount == freeIds.length) {
+            int[] grown = new int[freeIds.length * 2];
+            System.arraycopy(freeIds, 0, grown, 0, freeIds.length);
+            freeIds = grown;
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    public void occupy(int id, float pixelX, float pixelY) {
+        int column = columnOf(pixelX);
+        int index = indexOf(column, rowOf(pixelY));
+        if (index >= 0 && cells[index] != id) {
+            cells[index] = id;
+            columnVersions[column]++;
+        }
+    }
+
+    public void vacate(int id, float pixelX, float pixelY) {
+        int column = columnOf(pixelX);
+        int index = indexOf(column, rowOf(pixelY));
+        if (index >= 0 && cells[index] != EMPTY && find(cells[index]) == id) {
+            cells[index] = EMPTY;
+            columnVersions[column]++;
+        }
+    }
+
+    /**
+     * Versión de la columna: cambia cada vez que se ocupa o libera una de sus celdas
+     */
+    public int getColumnVersion(int column) {
+        return column >= 0 && column < columns ? columnVersions[column] : 0;
+    }
+
+    /**
+     * Fila ocupada más baja de la columna (la primera que encuentra un disparo que sube),
+     * o NO_ROW si la columna está vacía o fuera de la cuadrícula
+     */
+    public int getLowestOccupiedRow(int column) {
+        if (column < 0 || column >= columns) return NO_ROW;
+        int version = columnVersions[column];
+        if (lowestRowVersions[column] != version) {
+            lowestRows[column] = scanLowestRow(column);
+            lowestRowVersions[column] = version;
+        }
+        return lowestRows[column];
+    }
+
+    private int scanLowestRow(int column) {
+        for (int shiftedRow = rows - 1; shiftedRow >= 0; shiftedRow--) {
+            if (cells[shiftedRow * columns + column] != EMPTY) {
+                return shiftedRow - ROWS_ABOVE;
+            }
+        }
+        return NO_ROW;
+    }
+
+    public BlockGroup groupAt(int column, int row) {
+        int index = indexOf(column, row);
+        return index >= 0 ? groups[find(cells[index])] : null;
+    }
+
+    /**
+     * Busca el grupo con el que choca un disparo. Los disparos viajan alineados a una columna,
+     * así que solo pueden tocar la celda que contiene su borde superior o la inmediatamente
+     * inferior. Reproduce las tolerancias de BlockGroup.checkCollision para dx == 0.
+     */
+    public BlockGroup findCollision(Block shot) {
+        int column = columnOf(shot.x + blockSize / 2f);
+        int row = rowOf(shot.y);
+
+        // Celda que contiene al disparo: el disparo está por debajo de su borde superior
+        BlockGroup group = groupAt(column, row);
+        if (group != null && shot.y - rowToPixel(row) < blockSize * 0.9f) {
+            return group;
+        }
+
+        // Celda siguiente: el disparo queda justo por encima del bloque
+        group = groupAt(column, row + 1);
+        if (group != null && rowToPixel(row + 1) - shot.y < blockSize) {
+            return group;
+        }
+        return null;
+    }
+
+    public int columnOf(float pixelX) {
+        return (int) Math.floor((pixelX - offsetX) / blockSize);
+    }
+
+    public int rowOf(float pixelY) {
+        return (int) Math.floor((pixelY - offsetY) / blockSize);
+    }
+
+    float rowToPixel(int row) {
+        return offsetY + row * blockSize;
+    }
+
+    private int indexOf(int column, int row) {
+        int shiftedRow = row + ROWS_ABOVE;
+        if (column < 0 || column >= columns || shiftedRow < 0 || shiftedRow >= rows) return -1;
+        return shiftedRow * columns + column;
+    }
+}
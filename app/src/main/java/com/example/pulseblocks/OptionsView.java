@@ -6,24 +6,34 @@ import android.graphics.Typeface;
 import android.view.Gravity;
 import android.widget.Button;
 import android.widget.LinearLayout;
+import android.widget.ScrollView;
 import android.widget.SeekBar;
 import android.widget.TextView;
 
 import com.example.pulseblocks.MainActivity;
 
-// Vista de opciones
-class OptionsView extends LinearLayout {
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// Vista de opciones: una columna centrada dentro de un ScrollView para que quepa en pantallas bajas
+class OptionsView extends ScrollView {
     private MainActivity mainActivity;
+    private final LinearLayout column;
     private SeekBar musicSeekBar, sfxSeekBar;
     private TextView musicLabel, sfxLabel;
 
     public OptionsView(Context context) {
         super(context);
         this.mainActivity = (MainActivity) context;
-        setOrientation(LinearLayout.VERTICAL);
-        setGravity(Gravity.CENTER);
         setBackgroundColor(Color.BLACK);
-        setPadding(50, 50, 50, 50);
+        setFillViewport(true); // Con contenido corto la columna sigue centrada en vertical
+
+        column = new LinearLayout(context);
+        column.setOrientation(LinearLayout.VERTICAL);
+        column.setGravity(Gravity.CENTER);
+        column.setPadding(50, 50, 50, 50);
+        addView(column, new ScrollView.LayoutParams(
+                ScrollView.LayoutParams.MATCH_PARENT, ScrollView.LayoutParams.WRAP_CONTENT));
 
         createOptionsUI();
     }
@@ -42,14 +52,14 @@ class OptionsView extends LinearLayout {
                 LinearLayout.LayoutParams.WRAP_CONTENT
         );
         titleParams.setMargins(0, 0, 0, 80);
-        addView(title, titleParams);
+        column.addView(title, titleParams);
 
         // Volumen de música
         musicLabel = new TextView(getContext());
         musicLabel.setText("Volumen Música: " + (int) (mainActivity.getMusicVolume() * 100) + "%");
         musicLabel.setTextSize(20);
         musicLabel.setTextColor(Color.WHITE);
-        addView(musicLabel);
+        column.addView(musicLabel);
 
         musicSeekBar = new SeekBar(getContext());
         musicSeekBar.setMax(100);
@@ -77,14 +87,14 @@ class OptionsView extends LinearLayout {
                 400, LinearLayout.LayoutParams.WRAP_CONTENT
         );
         seekBarParams.setMargins(0, 10, 0, 40);
-        addView(musicSeekBar, seekBarParams);
+        column.addView(musicSeekBar, seekBarParams);
 
         // Volumen de efectos
         sfxLabel = new TextView(getContext());
         sfxLabel.setText("Volumen Efectos: " + (int) (mainActivity.getSfxVolume() * 100) + "%");
         sfxLabel.setTextSize(20);
         sfxLabel.setTextColor(Color.WHITE);
-        addView(sfxLabel);
+        column.addView(sfxLabel);
 
         sfxSeekBar = new SeekBar(getContext());
         sfxSeekBar.setMax(100);
@@ -112,7 +122,27 @@ class OptionsView extends LinearLayout {
                 400, LinearLayout.LayoutParams.WRAP_CONTENT
         );
         sfxSeekBarParams.setMargins(0, 10, 0, 60);
-        addView(sfxSeekBar, sfxSeekBarParams);
+        column.addView(sfxSeekBar, sfxSeekBarParams);
+
+        // HUD de rendimiento (tiempos por frame, GC y conteos; se aplica en la siguiente partida)
+        addToggle("HUD RENDIMIENTO",
+                mainActivity::isPerformanceHudEnabled, mainActivity::setPerformanceHudEnabled);
+
+        // Backend de dibujo (GPU o CPU; se aplica en la siguiente partida)
+        addToggle("RENDER", "GPU", "SOFTWARE",
+                mainActivity::isHardwareRenderingEnabled, mainActivity::setHardwareRenderingEnabled);
+
+        // Render OpenGL nativo por lotes (si falla se vuelve a Canvas; se aplica en la siguiente partida)
+        addToggle("OPENGL NATIVO",
+                mainActivity::isNativeRenderingEnabled, mainActivity::setNativeRenderingEnabled);
+
+        // HUD dibujado en la superficie del juego en lugar de vistas (solo con Canvas; siguiente partida)
+        addToggle("HUD EN SUPERFICIE",
+                mainActivity::isSurfaceHudEnabled, mainActivity::setSurfaceHudEnabled);
+
+        // Menos frames con el tablero quieto, la batería en ahorro o el móvil caliente (siguiente partida)
+        addToggle("AHORRO DE ENERGÍA",
+                mainActivity::isPowerPacingEnabled, mainActivity::setPowerPacingEnabled);
 
         // Botón volver
         Button backButton = new Button(getContext());
@@ -125,6 +155,32 @@ class OptionsView extends LinearLayout {
         LinearLayout.LayoutParams backParams = new LinearLayout.LayoutParams(
                 300, 70
         );
-        addView(backButton, backParams);
+        column.addView(backButton, backParams);
+    }
+
+    /**
+     * Botón que alterna una opción booleana mostrando "ETIQUETA: SÍ/NO"
+     */
+    private void addToggle(String label, BooleanSupplier get, Consumer<Boolean> set) {
+        addToggle(label, "SÍ", "NO", get, set);
+    }
+
+    private void addToggle(String label, String onText, String offText,
+                           BooleanSupplier get, Consumer<Boolean> set) {
+        Button button = new Button(getContext());
+        button.setText(label + ": " + (get.getAsBoolean() ? onText : offText));
+        button.setTextSize(16);
+        button.setBackgroundColor(Color.DKGRAY);
+        button.setTextColor(Color.WHITE);
+        button.setOnClickListener(v -> {
+            set.accept(!get.getAsBoolean());
+            button.setText(label + ": " + (get.getAsBoolean() ? onText : offText));
+        });
+
+        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
+                400, LinearLayout.LayoutParams.WRAP_CONTENT
+        );
+        params.setMargins(0, 0, 0, 60);
+        column.addView(button, params);
     }
 }
@@ -0,0 +1,141 @@
+// ParticleRenderer.java
+package com.example.pulseblocks;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import java.util.Arrays;
+
+/**
+ * Dibuja un ParticleSystem agrupando las partículas con el mismo color, alpha y radio en un
+ * solo drawPoints. Los buffers de dibujo se reservan una vez con la capacidad del sistema.
+ */
+class ParticleRenderer {
+    // Cuantización para agrupar el dibujo
+    private static final int ALPHA_LEVELS = 16;
+    private static final int MAX_RADIUS = 15;
+    private static final int BATCH_SLOTS = 64; // Potencia de dos (tabla de dispersión)
+
+    // Buffers de dibujo reutilizados entre frames
+    private final long[] batchKeys = new long[BATCH_SLOTS];
+    private final int[] batchCounts = new int[BATCH_SLOTS];
+    private final int[] batchOffsets = new int[BATCH_SLOTS];
+    private final int[] particleBatch;
+    private final float[] points;
+
+    public ParticleRenderer(int capacity) {
+        particleBatch = new int[capacity];
+        points = new float[capacity * 2];
+    }
+
+    /**
+     * Dibuja las partículas agrupadas por (color, nivel de alpha, radio): una llamada a
+     * drawPoints con trazo redondo por grupo en lugar de un drawCircle por partícula.
+     *
+     * @param budget máximo de partículas a dibujar; el resto se omite en este frame
+     */
+    public void draw(Canvas canvas, Paint paint, ParticleSystem particles, float interpolation,
+                     long now, int budget) {
+        int count = Math.min(particles.size(), budget);
+        if (count == 0) return;
+
+        float[] x = particles.x, y = particles.y;
+        float[] prevX = particles.prevX, prevY = particles.prevY;
+        float[] size = particles.size;
+        int[] color = particles.color;
+        long[] birth = particles.birth;
+        int[] life = particles.life;
+
+        Arrays.fill(batchCounts, 0);
+
+        // 1. Asignar cada partícula a su lote
+        for (int i = 0; i < count; i++) {
+            float progress = (float) (now - birth[i]) / life[i];
+            int alphaLevel = (int) ((1.0f - progress) * ALPHA_LEVELS);
+            int radius = Math.round(size[i]);
+            if (alphaLevel <= 0 || radius <= 0) {
+                particleBatch[i] = -1;
+                continue;
+            }
+            alphaLevel = Math.min(alphaLevel, ALPHA_LEVELS);
+            radius = Math.min(radius, MAX_RADIUS);
+
+            long key = ((long) (color[i] & 0xFFFFFF) << 16) | (alphaLevel << 8) | radius;
+            int slot = findSlot(key);
+            if (slot < 0) {
+                // Tabla llena: dibujar esta partícula por separado
+                particleBatch[i] = -1;
+                drawSingle(canvas, paint, particles, i, interpolation, alphaLevel);
+                continue;
+            }
+            batchCounts[slot]++;
+            particleBatch[i] = slot;
+        }
+
+        // 2. Offsets de cada lote dentro del buffer de puntos
+        int offset = 0;
+        for (int slot = 0; slot < BATCH_SLOTS; slot++) {
+            batchOffsets[slot] = offset;
+            offset += batchCounts[slot];
+        }
+
+        // 3. Volcar posiciones interpoladas
+        for (int i = 0; i < count; i++) {
+            int slot = particleBatch[i];
+            if (slot < 0) continue;
+            int p = batchOffsets[slot]++ * 2;
+            points[p] = prevX[i] + (x[i] - prevX[i]) * interpolation;
+            points[p + 1] = prevY[i] + (y[i] - prevY[i]) * interpolation;
+        }
+
+        // 4. Una llamada por lote
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeCap(Paint.Cap.ROUND);
+        int start = 0;
+        for (int slot = 0; slot < BATCH_SLOTS; slot++) {
+            int n = batchCounts[slot];
+            if (n == 0) continue;
+
+            long key = batchKeys[slot];
+            int rgb = (int) (key >>> 16);
+            int alphaLevel = (int) ((key >>> 8) & 0xFF);
+            int radius = (int) (key & 0xFF);
+            paint.setColor(Color.argb(alphaToByte(alphaLevel),
+                    Color.red(rgb), Color.green(rgb), Color.blue(rgb)));
+            paint.setStrokeWidth(radius * 2);
+            canvas.drawPoints(points, start * 2, n * 2, paint);
+            start += n;
+        }
+        paint.setStrokeCap(Paint.Cap.BUTT);
+        paint.setStyle(Paint.Style.FILL);
+    }
+
+    private int findSlot(long key) {
+        int slot = (int) (key ^ (key >>> 17) ^ (key >>> 31)) & (BATCH_SLOTS - 1);
+        for (int probe = 0; probe < BATCH_SLOTS; probe++) {
+            if (batchCounts[slot] == 0) {
+                batchKeys[slot] = key;
+                return slot;
+            }
+            if (batchKeys[slot] == key) return slot;
+            slot = (slot + 1) & (BATCH_SLOTS - 1);
+        }
+        return -1;
+    }
+
+    private void drawSingle(Canvas canvas, Paint paint, ParticleSystem particles, int i,
+                            float interpolation, int alphaLevel) {
+        int c = particles.color[i];
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(Color.argb(alphaToByte(alphaLevel), Color.red(c), Color.green(c), Color.blue(c)));
+        canvas.drawCircle(
+                particles.prevX[i] + (particles.x[i] - particles.prevX[i]) * interpolation,
+                particles.prevY[i] + (particles.y[i] - particles.prevY[i]) * interpolation,
+                particles.size[i], paint);
+    }
+
+    private static int alphaToByte(int alphaLevel) {
+        return alphaLevel * 255 / ALPHA_LEVELS;
+    }
+}
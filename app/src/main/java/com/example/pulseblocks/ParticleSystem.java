@@ -0,0 +1,109 @@
+// ParticleSystem.java
+package com.example.pulseblocks;
+
+/**
+ * Sistema de partículas de capacidad fija guardado como arrays paralelos (struct-of-arrays).
+ * No reserva memoria por partícula: las muertas se eliminan intercambiándolas con la última.
+ * Los arrays son visibles en el paquete para que ParticleRenderer los lea sin copiarlos.
+ */
+class ParticleSystem {
+    private static final float GRAVITY = 0.1f;
+    private static final float SHRINK = 0.98f;
+
+    private final int capacity;
+    private int count = 0;
+
+    final float[] x, y;
+    final float[] prevX, prevY;
+    final float[] vx, vy;
+    final float[] size;
+    final int[] color;
+    final long[] birth;
+    final int[] life;
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        size = new float[capacity];
+        color = new int[capacity];
+        birth = new long[capacity];
+        life = new int[capacity];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Añade una partícula; si el sistema está lleno se descarta
+     *
+     * @return false si no había hueco
+     */
+    public boolean spawn(float px, float py, float velocityX, float velocityY,
+                         int particleColor, int lifeTime, float particleSize, long now) {
+        if (count == capacity) return false;
+
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        prevX[i] = px;
+        prevY[i] = py;
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+        size[i] = particleSize;
+        color[i] = particleColor;
+        birth[i] = now;
+        life[i] = lifeTime;
+        return true;
+    }
+
+    /**
+     * Avanza un tick de simulación y compacta las partículas muertas
+     */
+    public void update(long now) {
+        int i = 0;
+        while (i < count) {
+            if (now - birth[i] > life[i]) {
+                removeAt(i);
+                continue; // La partícula intercambiada ocupa ahora el índice i
+            }
+
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vy[i] += GRAVITY; // Gravedad
+            size[i] *= SHRINK; // Reducir tamaño gradualmente
+            i++;
+        }
+    }
+
+    private void removeAt(int i) {
+        int last = --count;
+        if (i == last) return;
+
+        x[i] = x[last];
+        y[i] = y[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        size[i] = size[last];
+        color[i] = color[last];
+        birth[i] = birth[last];
+        life[i] = life[last];
+    }
+}
@@ -0,0 +1,100 @@
+// QualityGovernor.java
+package com.example.pulseblocks;
+
+import java.util.Arrays;
+
+/**
+ * Ajusta la calidad visual según el tiempo de trabajo medido por frame. Cada WINDOW frames
+ * calcula el percentil 95 y lo compara con el periodo de vsync (el intervalo mínimo visto en la
+ * ventana): si se come casi todo el presupuesto baja un nivel de calidad, y si sobra holgura
+ * durante varias ventanas seguidas vuelve a subir. Subir cuesta más que bajar para no oscilar.
+ * Solo afecta al dibujo, nunca a la simulación, así las partidas siguen siendo reproducibles.
+ */
+class QualityGovernor {
+    static final int TIER_HIGH = 0;
+    static final int TIER_MEDIUM = 1;
+    static final int TIER_LOW = 2;
+    static final int TIER_MINIMAL = 3;
+
+    // Por nivel, de TIER_HIGH a TIER_MINIMAL
+    private static final int[] PARTICLE_BUDGET = {Integer.MAX_VALUE, 512, 192, 64}; // Partículas dibujadas
+    private static final int[] STAR_LAYERS = {3, 3, 2, 1};                  // Capas más cercanas
+    private static final boolean[] BLOCK_GLOW = {true, true, false, false}; // Sprites con halo difuminado
+    private static final boolean[] AMBIENT = {true, false, false, false};   // Líneas de energía y pulsos
+
+    private static final int WINDOW = 60; // Frames por evaluación
+    private static final float DEGRADE_SHARE = 0.85f; // p95 por encima de esta parte del vsync: bajar
+    private static final float RESTORE_SHARE = 0.5f;  // p95 por debajo: cuenta como ventana holgada
+    private static final int RESTORE_WINDOWS = 4;     // Ventanas holgadas seguidas para subir
+    private static final long DEFAULT_VSYNC_NANOS = 16_666_667L;
+
+    private final long[] workNanos = new long[WINDOW];
+    private final long[] sorted = new long[WINDOW];
+    private int count = 0;
+    private long minIntervalNanos = Long.MAX_VALUE;
+    private int tier = TIER_HIGH;
+    private int calmWindows = 0;
+
+    /**
+     * Registra un frame; llamar una vez por frame desde el hilo del juego
+     *
+     * @param frameWorkNanos tiempo de simulación + dibujo + presentación del frame
+     * @param intervalNanos  tiempo desde el frame anterior (0 si no se conoce)
+     */
+    public void onFrame(long frameWorkNanos, long intervalNanos) {
+        workNanos[count++] = frameWorkNanos;
+        if (intervalNanos > 0 && intervalNanos < minIntervalNanos) {
+            minIntervalNanos = intervalNanos;
+        }
+        if (count == WINDOW) {
+            evaluate();
+            count = 0;
+            minIntervalNanos = Long.MAX_VALUE;
+        }
+    }
+
+    private void evaluate() {
+        System.arraycopy(workNanos, 0, sorted, 0, WINDOW);
+        Arrays.sort(sorted);
+        long p95 = sorted[(int) Math.ceil(WINDOW * 0.95) - 1];
+        long budget = minIntervalNanos == Long.MAX_VALUE ? DEFAULT_VSYNC_NANOS : minIntervalNanos;
+
+        if (p95 > budget * DEGRADE_SHARE) {
+            calmWindows = 0;
+            if (tier < TIER_MINIMAL) tier++;
+        } else if (p95 < budget * RESTORE_SHARE) {
+            if (++calmWindows >= RESTORE_WINDOWS && tier > TIER_HIGH) {
+                tier--;
+                calmWindows = 0;
+            }
+        } else {
+            calmWindows = 0;
+        }
+    }
+
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * Máximo de partículas a dibujar por frame
+     */
+    public int getParticleBudget() {
+        return PARTICLE_BUDGET[tier];
+    }
+
+    /**
+     * Capas de estrellas a dibujar, empezando por la más cercana
+     */
+    public int getStarLayers() {
+        return STAR_LAYERS[tier];
+    }
+
+    public boolean isBlockGlowEnabled() {
+        return BLOCK_GLOW[tier];
+    }
+
+    public boolean areAmbientEffectsEnabled() {
+        return AMBIENT[tier];
+    }
+}
@@ -0,0 +1,42 @@
+// ScorePopup.java
+package com.example.pulseblocks;
+
+class ScorePopup {
+    public float x, y;
+    public char[] text; // Compartido (ScoreTextCache); no modificar
+    public long lifeTime;
+    public long creationTime;
+    public float alpha;
+    public float offsetY;
+
+    public ScorePopup(float x, float y, char[] text, long lifeTime, long now) {
+        set(x, y, text, lifeTime, now);
+    }
+
+    /**
+     * Reinicia el popup (para reutilizarlo desde un pool)
+     */
+    public ScorePopup set(float x, float y, char[] text, long lifeTime, long now) {
+        this.x = x;
+        this.y = y;
+        this.text = text;
+        this.lifeTime = lifeTime;
+        this.creationTime = now;
+        this.alpha = 255;
+        this.offsetY = 0;
+        return this;
+    }
+
+    public void update(long now) {
+        offsetY -= 2; // Mover hacia arriba
+
+        // Calcular alpha basado en el tiempo de vida
+        long elapsed = now - creationTime;
+        float progress = (float) elapsed / lifeTime;
+        alpha = 255 * (1.0f - progress);
+    }
+
+    public boolean isDead(long now) {
+        return now - creationTime > lifeTime || alpha <= 0;
+    }
+}
@@ -0,0 +1,35 @@
+// ScoreTextCache.java
+package com.example.pulseblocks;
+
+/**
+ * Textos "+N" de los popups de puntuación indexados por puntos. Cada valor se convierte a
+ * char[] la primera vez que aparece y después se reutiliza, así crear un popup no concatena
+ * Strings. Los arrays devueltos son compartidos y no deben modificarse.
+ */
+class ScoreTextCache {
+    private char[][] texts;
+
+    public ScoreTextCache(int initialCapacity) {
+        texts = new char[Math.max(1, initialCapacity)][];
+    }
+
+    public char[] get(int points) {
+        if (points < 0) return format(points); // No se dan puntos negativos; no se cachea
+
+        if (points >= texts.length) {
+            char[][] grown = new char[Math.max(points + 1, texts.length * 2)][];
+            System.arraycopy(texts, 0, grown, 0, texts.length);
+            texts = grown;
+        }
+        char[] text = texts[points];
+        if (text == null) {
+            text = format(points);
+            texts[points] = text;
+        }
+        return text;
+    }
+
+    private static char[] format(int points) {
+        return ("+" + points).toCharArray();
+    }
+}
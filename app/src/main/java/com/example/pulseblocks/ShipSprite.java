@@ -0,0 +1,295 @@
+// ShipSprite.java
+package com.example.pulseblocks;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RadialGradient;
+import android.graphics.RecordingCanvas;
+import android.graphics.RectF;
+import android.graphics.RenderNode;
+import android.graphics.Shader;
+
+/**
+ * Nave del jugador rasterizada una sola vez por blockSize. Cada frame solo se dibuja el bitmap
+ * desplazado a la posición del cañón, más el tinte de sobrecalentamiento y las líneas de energía
+ * con Paints, shaders y buffers creados de antemano. En un canvas acelerado por hardware la nave
+ * se graba una vez en un RenderNode y cada frame solo cambian su posición y el alpha del tinte.
+ */
+class ShipSprite {
+    // Colores de la nave
+    private static final int COLOR_PRIMARIO = 0xFF00D9FF;
+    private static final int COLOR_SECUNDARIO = 0xFF0080FF;
+    private static final int COLOR_OSCURO = 0xFF003D5C;
+    private static final int COLOR_BRILLANTE = 0xFFFFFFFF;
+    private static final int COLOR_MOTOR = 0xFFFF6B00;
+    private static final int COLOR_CABINA_CENTRO = 0x80FFFFFF;
+    private static final int COLOR_CABINA_BORDE = 0x2000D9FF;
+    private static final int COLOR_LUZ_IZQUIERDA = 0xFF00FF88;
+    private static final int COLOR_LUZ_DERECHA = 0xFFFF0044;
+    private static final int COLOR_PANELES = 0x40FFFFFF;
+
+    private static final int PADDING = 4; // Margen para el antialiasing
+
+    private final int blockSize;
+    private final int shipHeight;
+    private final int originX, originY; // Posición de (cannonPixelX, cannonY) dentro del bitmap
+    private final Bitmap bitmap;
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // Tinte de sobrecalentamiento: gradiente opaco cuya intensidad se ajusta con el alpha del Paint
+    private final Paint overheatPaint = new Paint();
+    private final float overheatCenterX, overheatCenterY, overheatRadius;
+
+    // Líneas de energía alrededor del tubo (coordenadas locales, una sola llamada drawLines)
+    private final Paint energyPaint = new Paint();
+    private final float[] energyLines;
+
+    // Ruta por hardware: display lists grabadas una vez (se crean al primer uso)
+    private RenderNode shipNode;
+    private RenderNode overheatNode;
+
+    public ShipSprite(int blockSize, int shipHeight) {
+        this.blockSize = blockSize;
+        this.shipHeight = shipHeight;
+
+        int baseWidth = (int) (blockSize * 1.2);
+        int tubeWidth = blockSize - 5;
+        int tubeHeight = blockSize;
+
+        originX = (int) Math.ceil(blockSize * 0.8f) + PADDING;
+        originY = PADDING;
+        int width = originX + (int) Math.ceil(blockSize * 1.8f) + PADDING;
+        int height = shipHeight + PADDING * 2;
+
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.translate(originX, originY);
+        renderBody(canvas);
+
+        overheatCenterX = baseWidth / 2f;
+        overheatCenterY = shipHeight - tubeHeight;
+        overheatRadius = baseWidth;
+        overheatPaint.setShader(new LinearGradient(
+                0, 0, 0, shipHeight,
+                Color.argb(255, 255, 0, 0), // Color inicial (arriba)
+                Color.TRANSPARENT,
+                Shader.TileMode.CLAMP
+        ));
+
+        energyPaint.setColor(Color.CYAN);
+        energyPaint.setAlpha(120);
+        energyPaint.setStrokeWidth(4f);
+        energyLines = new float[5 * 2 * 4];
+        int p = 0;
+        for (int i = -2; i <= 2; i++) {
+            float lineY = tubeHeight / 2f + i * 10;
+            energyLines[p++] = -10;
+            energyLines[p++] = lineY;
+            energyLines[p++] = 0;
+            energyLines[p++] = lineY;
+            energyLines[p++] = tubeWidth;
+            energyLines[p++] = lineY;
+            energyLines[p++] = tubeWidth + 10;
+            energyLines[p++] = lineY;
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Dibuja la nave con su esquina superior izquierda de fuselaje en (x, y)
+     *
+     * @param overheat nivel de sobrecalentamiento (0..255)
+     */
+    public void draw(Canvas canvas, int x, int y, int overheat) {
+        if (canvas.isHardwareAccelerated()) {
+            drawNode(canvas, x, y, overheat);
+            return;
+        }
+
+        canvas.drawBitmap(bitmap, x - originX, y - originY, bitmapPaint);
+
+        canvas.save();
+        canvas.translate(x, y);
+
+        // Sobrecalentamiento del cañón
+        if (overheat > 0) {
+            overheatPaint.setAlpha(Math.min(255, overheat));
+            canvas.drawCircle(overheatCenterX, overheatCenterY, overheatRadius, overheatPaint);
+        }
+
+        // Líneas de energía alrededor del tubo
+        canvas.drawLines(energyLines, energyPaint);
+
+        canvas.restore();
+    }
+
+    /**
+     * Misma salida que draw() con RenderNodes: el tinte es un nodo hijo cuyo alpha sustituye
+     * al alpha del Paint, así no hay que volver a grabar nada entre frames.
+     */
+    private void drawNode(Canvas canvas, int x, int y, int overheat) {
+        if (shipNode == null) {
+            recordNodes();
+        }
+        overheatNode.setAlpha(Math.min(255, overheat) / 255f);
+        int left = x - originX;
+        int top = y - originY;
+        shipNode.setPosition(left, top, left + bitmap.getWidth(), top + bitmap.getHeight());
+        canvas.drawRenderNode(shipNode);
+    }
+
+    private void recordNodes() {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+
+        // El círculo del tinte sobresale por encima del bitmap: sin recorte, igual que en software
+        overheatNode = new RenderNode("shipOverheat");
+        overheatNode.setPosition(0, 0, width, height);
+        overheatNode.setClipToBounds(false);
+        overheatNode.setHasOverlappingRendering(false);
+        RecordingCanvas overheatCanvas = overheatNode.beginRecording(width, height);
+        overheatPaint.setAlpha(255);
+        overheatCanvas.drawCircle(overheatCenterX, overheatCenterY, overheatRadius, overheatPaint);
+        overheatNode.endRecording();
+
+        shipNode = new RenderNode("ship");
+        shipNode.setPosition(0, 0, width, height);
+        shipNode.setClipToBounds(false);
+        RecordingCanvas shipCanvas = shipNode.beginRecording(width, height);
+        shipCanvas.drawBitmap(bitmap, 0, 0, bitmapPaint);
+        shipCanvas.translate(originX, originY);
+        shipCanvas.drawRenderNode(overheatNode);
+        shipCanvas.drawLines(energyLines, energyPaint);
+        shipNode.endRecording();
+    }
+
+    /**
+     * Dibuja la nave en coordenadas locales (cannonPixelX = 0, cannonY = 0)
+     */
+    private void renderBody(Canvas canvas) {
+        // Cuerpo principal (fuselaje central)
+        Paint bodyPaint = new Paint();
+        bodyPaint.setAntiAlias(true);
+        bodyPaint.setShader(new LinearGradient(
+                0, 0, blockSize, shipHeight,
+                new int[]{COLOR_BRILLANTE, COLOR_PRIMARIO, COLOR_OSCURO},
+                new float[]{0f, 0.4f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+
+        RectF fuselaje = new RectF(blockSize * 0.2f, 0, blockSize * 0.8f, shipHeight);
+        canvas.drawRoundRect(fuselaje, 20, 20, bodyPaint);
+
+        // Cabina (cockpit)
+        Paint cockpitPaint = new Paint();
+        cockpitPaint.setAntiAlias(true);
+        cockpitPaint.setShader(new RadialGradient(
+                blockSize * 0.5f, blockSize * 0.3f, blockSize * 0.4f,
+                new int[]{COLOR_CABINA_CENTRO, COLOR_CABINA_BORDE},
+                new float[]{0f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+
+        RectF cockpit = new RectF(blockSize * 0.25f, blockSize * 0.1f, blockSize * 0.75f, blockSize * 0.5f);
+        canvas.drawRoundRect(cockpit, 30, 30, cockpitPaint);
+
+        // Alas principales (más dinámicas)
+        Paint wingPaint = new Paint();
+        wingPaint.setAntiAlias(true);
+        wingPaint.setShader(new LinearGradient(
+                -blockSize * 0.8f, shipHeight * 0.5f,
+                blockSize * 0.2f, shipHeight * 0.6f,
+                new int[]{COLOR_OSCURO, COLOR_SECUNDARIO, COLOR_PRIMARIO},
+                null,
+                Shader.TileMode.CLAMP
+        ));
+
+        Path wingLeft = new Path();
+        wingLeft.moveTo(blockSize * 0.2f, shipHeight * 0.4f);
+        wingLeft.lineTo(-blockSize * 0.8f, shipHeight * 0.5f);
+        wingLeft.lineTo(-blockSize * 0.6f, shipHeight * 0.65f);
+        wingLeft.lineTo(blockSize * 0.2f, shipHeight * 0.6f);
+        wingLeft.close();
+        canvas.drawPath(wingLeft, wingPaint);
+
+        Path wingRight = new Path();
+        wingRight.moveTo(blockSize * 0.8f, shipHeight * 0.4f);
+        wingRight.lineTo(blockSize * 1.8f, shipHeight * 0.5f);
+        wingRight.lineTo(blockSize * 1.6f, shipHeight * 0.65f);
+        wingRight.lineTo(blockSize * 0.8f, shipHeight * 0.6f);
+        wingRight.close();
+        canvas.drawPath(wingRight, wingPaint);
+
+        // Alas traseras (estabilizadores)
+        Path tailWingLeft = new Path();
+        tailWingLeft.moveTo(blockSize * 0.25f, shipHeight * 0.75f);
+        tailWingLeft.lineTo(-blockSize * 0.3f, shipHeight * 0.8f);
+        tailWingLeft.lineTo(-blockSize * 0.2f, shipHeight * 0.9f);
+        tailWingLeft.lineTo(blockSize * 0.25f, shipHeight * 0.85f);
+        tailWingLeft.close();
+        canvas.drawPath(tailWingLeft, wingPaint);
+
+        Path tailWingRight = new Path();
+        tailWingRight.moveTo(blockSize * 0.75f, shipHeight * 0.75f);
+        tailWingRight.lineTo(blockSize * 1.3f, shipHeight * 0.8f);
+        tailWingRight.lineTo(blockSize * 1.2f, shipHeight * 0.9f);
+        tailWingRight.lineTo(blockSize * 0.75f, shipHeight * 0.85f);
+        tailWingRight.close();
+        canvas.drawPath(tailWingRight, wingPaint);
+
+        // Motores/propulsores
+        float engineY = shipHeight - blockSize * 0.15f;
+        float engineRadius = blockSize * 0.15f;
+        Paint enginePaint = new Paint();
+        enginePaint.setAntiAlias(true);
+        enginePaint.setShader(new RadialGradient(
+                blockSize * 0.3f, engineY, engineRadius,
+                new int[]{COLOR_MOTOR, COLOR_OSCURO},
+                new float[]{0.3f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+        canvas.drawCircle(blockSize * 0.3f, engineY, engineRadius, enginePaint);
+
+        enginePaint.setShader(new RadialGradient(
+                blockSize * 0.7f, engineY, engineRadius,
+                new int[]{COLOR_MOTOR, COLOR_OSCURO},
+                new float[]{0.3f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+        canvas.drawCircle(blockSize * 0.7f, engineY, engineRadius, enginePaint);
+
+        // Detalles luminosos en el fuselaje
+        Paint glowPaint = new Paint();
+        glowPaint.setAntiAlias(true);
+        glowPaint.setColor(COLOR_PRIMARIO);
+        glowPaint.setStyle(Paint.Style.STROKE);
+        glowPaint.setStrokeWidth(3);
+        canvas.drawLine(blockSize * 0.5f, blockSize * 0.6f, blockSize * 0.5f, shipHeight * 0.75f, glowPaint);
+
+        // Luces de navegación
+        Paint lightPaint = new Paint();
+        lightPaint.setAntiAlias(true);
+        lightPaint.setColor(COLOR_LUZ_IZQUIERDA);
+        canvas.drawCircle(blockSize * 0.15f, shipHeight * 0.5f, 5, lightPaint);
+
+        lightPaint.setColor(COLOR_LUZ_DERECHA);
+        canvas.drawCircle(blockSize * 0.85f, shipHeight * 0.5f, 5, lightPaint);
+
+        // Paneles de armadura (detalles)
+        Paint panelPaint = new Paint();
+        panelPaint.setAntiAlias(true);
+        panelPaint.setColor(COLOR_PANELES);
+        panelPaint.setStyle(Paint.Style.STROKE);
+        panelPaint.setStrokeWidth(2);
+
+        RectF panel1 = new RectF(blockSize * 0.3f, shipHeight * 0.55f, blockSize * 0.7f, shipHeight * 0.65f);
+        canvas.drawRoundRect(panel1, 5, 5, panelPaint);
+    }
+}
@@ -0,0 +1,140 @@
+// Starfield.java
+package com.example.pulseblocks;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import java.util.Random;
+
+/**
+ * Fondo de estrellas en varias capas con paralaje. Cada capa se pinta una sola vez en un bitmap
+ * ALPHA_8 del tamaño de la pantalla y en cada frame solo se desplaza: dos drawBitmap por capa,
+ * tenga las estrellas que tenga. El parpadeo es un alpha por capa que se calcula del tiempo.
+ */
+class Starfield {
+    static final int LAYERS = 3;
+
+    // Por capa, de la más lejana a la más cercana
+    private static final float[] LAYER_SPEED = {0.25f, 0.6f, 1.2f};  // Píxeles por tick
+    private static final float[] LAYER_RADIUS = {0.8f, 1.4f, 2.2f};  // Radio máximo
+    private static final float[] LAYER_SHARE = {0.55f, 0.3f, 0.15f}; // Parte de las estrellas
+    private static final float[] TWINKLE_PERIOD_MS = {2300f, 1700f, 1100f};
+    private static final float TWINKLE_DEPTH = 0.35f; // Cuánto baja el alpha en el parpadeo
+    private static final float LAYER_PHASE_TURNS = 0.334f; // Desfase del parpadeo entre capas
+
+    private final int width, height;
+    private final Bitmap[] tiles = new Bitmap[LAYERS];
+    private final float[] offsets = new float[LAYERS];
+    private final float[] prevOffsets = new float[LAYERS];
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // Estrellas en coordenadas del bitmap de su capa (para backends sin bitmaps, como OpenGL)
+    final int count;
+    final float[] x, y, radius, brightness;
+    final int[] layer;
+
+    public Starfield(int width, int height, int starCount, Random random) {
+        this.width = width;
+        this.height = height;
+        this.count = starCount;
+        x = new float[starCount];
+        y = new float[starCount];
+        radius = new float[starCount];
+        brightness = new float[starCount];
+        layer = new int[starCount];
+
+        int index = 0;
+        for (int l = 0; l < LAYERS; l++) {
+            int layerCount = l == LAYERS - 1 ? starCount - index : (int) (starCount * LAYER_SHARE[l]);
+            for (int k = 0; k < layerCount; k++, index++) {
+                x[index] = random.nextFloat() * width;
+                y[index] = random.nextFloat() * height;
+                radius[index] = LAYER_RADIUS[l] * (0.5f + random.nextFloat() * 0.5f);
+                brightness[index] = 0.3f + random.nextFloat() * 0.7f;
+                layer[index] = l;
+            }
+        }
+
+        renderTiles();
+    }
+
+    private void renderTiles() {
+        Paint starPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        starPaint.setStyle(Paint.Style.FILL);
+
+        Canvas[] canvases = new Canvas[LAYERS];
+        for (int l = 0; l < LAYERS; l++) {
+            tiles[l] = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+            canvases[l] = new Canvas(tiles[l]);
+        }
+
+        for (int i = 0; i < count; i++) {
+            Canvas canvas = canvases[layer[i]];
+            starPaint.setAlpha((int) (brightness[i] * 255));
+            canvas.drawCircle(x[i], y[i], radius[i], starPaint);
+
+            // Repetir en el borde opuesto para que la costura no se vea al desplazar
+            if (y[i] - radius[i] < 0) {
+                canvas.drawCircle(x[i], y[i] + height, radius[i], starPaint);
+            } else if (y[i] + radius[i] > height) {
+                canvas.drawCircle(x[i], y[i] - height, radius[i], starPaint);
+            }
+        }
+
+        for (Bitmap tile : tiles) {
+            tile.prepareToDraw();
+        }
+    }
+
+    /**
+     * Avanza un tick el desplazamiento de cada capa
+     */
+    public void update() {
+        for (int l = 0; l < LAYERS; l++) {
+            prevOffsets[l] = offsets[l];
+            offsets[l] += LAYER_SPEED[l];
+            if (offsets[l] >= height) {
+                offsets[l] -= height;
+                prevOffsets[l] -= height;
+            }
+        }
+    }
+
+    /**
+     * Desplazamiento vertical de la capa interpolado entre los dos últimos ticks
+     */
+    float getOffset(int l, float interpolation) {
+        return prevOffsets[l] + (offsets[l] - prevOffsets[l]) * interpolation;
+    }
+
+    /**
+     * Alpha de parpadeo de la capa en [1 - TWINKLE_DEPTH, 1]
+     */
+    float getLayerAlpha(int l, long now) {
+        return 1f - TWINKLE_DEPTH * AmbientWave.wave01(now, TWINKLE_PERIOD_MS[l], l * LAYER_PHASE_TURNS);
+    }
+
+    /**
+     * Posición vertical en pantalla de la estrella i con el desplazamiento de su capa
+     */
+    float getScreenY(int i, float interpolation) {
+        float screenY = y[i] + getOffset(layer[i], interpolation);
+        return screenY >= height ? screenY - height : screenY;
+    }
+
+    /**
+     * @param layerCount capas a dibujar, empezando por la más cercana (las lejanas son las que
+     *                   tienen más estrellas y menos se notan)
+     */
+    public void draw(Canvas canvas, float interpolation, long now, int layerCount) {
+        paint.setColor(Color.WHITE);
+        for (int l = LAYERS - Math.min(layerCount, LAYERS); l < LAYERS; l++) {
+            float offset = getOffset(l, interpolation);
+            paint.setAlpha((int) (getLayerAlpha(l, now) * 255));
+            canvas.drawBitmap(tiles[l], 0, offset - height, paint);
+            canvas.drawBitmap(tiles[l], 0, offset, paint);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+// SurfaceHud.java
+package com.example.pulseblocks;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+/**
+ * HUD de la partida (puntuación, nivel, barra de sobrecalentamiento y flechas) dibujado por el
+ * hilo del juego dentro de la propia superficie, en lugar de vistas de Android encima. Los
+ * dígitos, las etiquetas y los botones se rasterizan una sola vez; cada frame solo se copian
+ * trozos de bitmap y un par de rectángulos, sin reservar memoria. La posición de los elementos
+ * se publica como un Layout inmutable: el hilo de UI lo sustituye al cambiar la superficie y
+ * el hilo del juego (draw) y el de UI (hitTest) leen siempre uno completo.
+ */
+class SurfaceHud {
+    private static final String SCORE_LABEL = "Score: ";
+    private static final String LEVEL_LABEL = " | Level: ";
+    private static final int MAX_DIGITS = 10;
+
+    // Mismos colores que los controles de Android (MainActivity y overheat_bar_progress.xml)
+    private static final int COLOR_BUTTON_START = 0xFF0F2027;
+    private static final int COLOR_BUTTON_END = 0xFF2C5364;
+    private static final int COLOR_ARROW = 0xFF00FFFF;
+    private static final int COLOR_BAR_BACKGROUND = 0xFF111111;
+    private static final int COLOR_BAR_BORDER = 0xFF00E5FF;
+    private static final int[] COLOR_BAR_PROGRESS = {0xFF6CB4EE, 0xFFFF1A1A, 0xFF8B0000};
+
+    private static final int MARGIN = 20;
+    private static final float BAR_SMOOTHING = 0.35f; // Fracción recorrida por frame hacia el valor real
+
+    private final int blockSize;
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // Texto: tira con los dígitos 0-9 de ancho fijo y las etiquetas pre-renderizadas
+    private final Bitmap digits;
+    private final Bitmap scoreLabel, levelLabel;
+    private final int digitWidth, textHeight;
+    private final Rect digitSrc = new Rect();
+    private final Rect digitDst = new Rect();
+    private final int[] digitScratch = new int[MAX_DIGITS];
+
+    // Botones de flecha
+    private final Bitmap leftButton, rightButton;
+
+    // Barra de sobrecalentamiento
+    private final Paint barBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint barBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint barProgressPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float barRadius;
+    private float shownOverheat = 0;
+    private Shader appliedBarShader; // Solo hilo del juego
+
+    private volatile Layout layout; // null hasta la primera llamada a layout()
+
+    /**
+     * Posiciones para un tamaño de superficie; no se modifica tras construirse
+     */
+    private static final class Layout {
+        final int width;
+        final Rect leftBounds, rightBounds;
+        final RectF barBounds;
+        final Shader barShader;
+
+        Layout(int width, Rect leftBounds, Rect rightBounds, RectF barBounds, Shader barShader) {
+            this.width = width;
+            this.leftBounds = leftBounds;
+            this.rightBounds = rightBounds;
+            this.barBounds = barBounds;
+            this.barShader = barShader;
+        }
+    }
+
+    public SurfaceHud(int blockSize) {
+        this.blockSize = blockSize;
+
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(blockSize * 0.6f);
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        textHeight = (int) Math.ceil(metrics.descent - metrics.ascent);
+
+        int widest = 0;
+        for (int d = 0; d <= 9; d++) {
+            widest = Math.max(widest, (int) Math.ceil(textPaint.measureText(String.valueOf(d))));
+        }
+        digitWidth = widest;
+        digits = Bitmap.createBitmap(digitWidth * 10, textHeight, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(digits);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        for (int d = 0; d <= 9; d++) {
+            canvas.drawText(String.valueOf(d), digitWidth * d + digitWidth / 2f, -metrics.ascent,
+                    textPaint);
+        }
+        textPaint.setTextAlign(Paint.Align.LEFT);
+        scoreLabel = renderLabel(SCORE_LABEL, textPaint);
+        levelLabel = renderLabel(LEVEL_LABEL, textPaint);
+
+        int buttonSize = blockSize * 3;
+        leftButton = renderArrowButton(buttonSize, -1);
+        rightButton = renderArrowButton(buttonSize, 1);
+
+        float density = Resources.getSystem().getDisplayMetrics().density;
+        barRadius = 12 * density;
+        barBackgroundPaint.setColor(COLOR_BAR_BACKGROUND);
+        barBorderPaint.setStyle(Paint.Style.STROKE);
+        barBorderPaint.setStrokeWidth(3 * density);
+        barBorderPaint.setColor(COLOR_BAR_BORDER);
+    }
+
+    private Bitmap renderLabel(String text, Paint textPaint) {
+        int labelWidth = (int) Math.ceil(textPaint.measureText(text));
+        Bitmap bitmap = Bitmap.createBitmap(Math.max(1, labelWidth), textHeight, Bitmap.Config.ARGB_8888);
+        new Canvas(bitmap).drawText(text, 0, -textPaint.getFontMetrics().ascent, textPaint);
+        return bitmap;
+    }
+
+    private static Bitmap renderArrowButton(int size, int direction) {
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        Paint fill = new Paint(Paint.ANTI_ALIAS_FLAG);
+        fill.setShader(new LinearGradient(0, 0, size, 0, COLOR_BUTTON_START, COLOR_BUTTON_END,
+                Shader.TileMode.CLAMP));
+        RectF bounds = new RectF(2, 2, size - 2, size - 2);
+        canvas.drawRoundRect(bounds, 40f, 40f, fill);
+
+        Paint stroke = new Paint(Paint.ANTI_ALIAS_FLAG);
+        stroke.setStyle(Paint.Style.STROKE);
+        stroke.setStrokeWidth(4);
+        stroke.setColor(Color.CYAN);
+        canvas.drawRoundRect(bounds, 40f, 40f, stroke);
+
+        // Chevron como el de arrow_left.xml / arrow_right.xml
+        float arm = size * 0.12f;
+        float centerX = size / 2f, centerY = size / 2f;
+        Path arrow = new Path();
+        arrow.moveTo(centerX + direction * arm / 2, centerY - arm);
+        arrow.lineTo(centerX - direction * arm / 2, centerY);
+        arrow.lineTo(centerX + direction * arm / 2, centerY + arm);
+        Paint arrowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        arrowPaint.setStyle(Paint.Style.STROKE);
+        arrowPaint.setStrokeWidth(size * 0.04f);
+        arrowPaint.setStrokeCap(Paint.Cap.ROUND);
+        arrowPaint.setStrokeJoin(Paint.Join.ROUND);
+        arrowPaint.setColor(COLOR_ARROW);
+        canvas.drawPath(arrow, arrowPaint);
+
+        bitmap.prepareToDraw();
+        return bitmap;
+    }
+
+    /**
+     * Coloca los elementos para una superficie de width x height y publica la nueva
+     * disposición. Se puede llamar desde el hilo de UI mientras el juego dibuja.
+     */
+    public void layout(int width, int height) {
+        int buttonSize = leftButton.getWidth();
+        Rect left = new Rect(MARGIN, height - MARGIN - buttonSize, MARGIN + buttonSize, height - MARGIN);
+        Rect right = new Rect(width - MARGIN - buttonSize, height - MARGIN - buttonSize,
+                width - MARGIN, height - MARGIN);
+
+        float barWidth = blockSize * 4;
+        float barBottom = height - blockSize / 3f;
+        RectF bar = new RectF((width - barWidth) / 2f, barBottom - blockSize * 2,
+                (width + barWidth) / 2f, barBottom);
+        Shader barShader = new LinearGradient(bar.left, bar.bottom, bar.right, bar.top,
+                COLOR_BAR_PROGRESS, null, Shader.TileMode.CLAMP);
+        layout = new Layout(width, left, right, bar, barShader);
+    }
+
+    /**
+     * Botón bajo el punto tocado: -1 izquierda, 1 derecha, 0 ninguno
+     */
+    public int hitTest(float x, float y) {
+        Layout current = layout;
+        if (current == null) return 0;
+        if (current.leftBounds.contains((int) x, (int) y)) return -1;
+        if (current.rightBounds.contains((int) x, (int) y)) return 1;
+        return 0;
+    }
+
+    public void draw(Canvas canvas, int score, int level, int overheat) {
+        Layout current = layout;
+        if (current == null) return;
+
+        drawScoreLine(canvas, current.width, score, level);
+        drawOverheatBar(canvas, current, overheat);
+        canvas.drawBitmap(leftButton, current.leftBounds.left, current.leftBounds.top, bitmapPaint);
+        canvas.drawBitmap(rightButton, current.rightBounds.left, current.rightBounds.top, bitmapPaint);
+    }
+
+    private void drawScoreLine(Canvas canvas, int width, int score, int level) {
+        int scoreDigits = countDigits(score);
+        int levelDigits = countDigits(level);
+        int lineWidth = scoreLabel.getWidth() + levelLabel.getWidth()
+                + (scoreDigits + levelDigits) * digitWidth;
+
+        int x = (width - lineWidth) / 2;
+        canvas.drawBitmap(scoreLabel, x, MARGIN, bitmapPaint);
+        x += scoreLabel.getWidth();
+        x = drawNumber(canvas, score, scoreDigits, x, MARGIN);
+        canvas.drawBitmap(levelLabel, x, MARGIN, bitmapPaint);
+        x += levelLabel.getWidth();
+        drawNumber(canvas, level, levelDigits, x, MARGIN);
+    }
+
+    private static int countDigits(int value) {
+        int count = 1;
+        for (int v = Math.max(0, value); v >= 10; v /= 10) count++;
+        return count;
+    }
+
+    /**
+     * Copia de la tira los dígitos de value a partir de x
+     *
+     * @return x tras el último dígito
+     */
+    private int drawNumber(Canvas canvas, int value, int count, int x, int y) {
+        int v = Math.max(0, value);
+        for (int i = count - 1; i >= 0; i--) {
+            digitScratch[i] = v % 10;
+            v /= 10;
+        }
+        for (int i = 0; i < count; i++) {
+            int d = digitScratch[i];
+            digitSrc.set(d * digitWidth, 0, (d + 1) * digitWidth, textHeight);
+            digitDst.set(x, y, x + digitWidth, y + textHeight);
+            canvas.drawBitmap(digits, digitSrc, digitDst, bitmapPaint);
+            x += digitWidth;
+        }
+        return x;
+    }
+
+    private void drawOverheatBar(Canvas canvas, Layout current, int overheat) {
+        RectF barBounds = current.barBounds;
+        if (appliedBarShader != current.barShader) {
+            barProgressPaint.setShader(current.barShader);
+            appliedBarShader = current.barShader;
+        }
+
+        // Suavizado equivalente a la animación corta de la ProgressBar
+        shownOverheat += (Math.max(0, Math.min(255, overheat)) - shownOverheat) * BAR_SMOOTHING;
+
+        canvas.drawRoundRect(barBounds, barRadius, barRadius, barBackgroundPaint);
+        float fillRight = barBounds.left + barBounds.width() * (shownOverheat / 255f);
+        if (fillRight > barBounds.left + 0.5f) {
+            canvas.save();
+            canvas.clipRect(barBounds.left, barBounds.top, fillRight, barBounds.bottom);
+            canvas.drawRoundRect(barBounds, barRadius, barRadius, barProgressPaint);
+            canvas.restore();
+        }
+        canvas.drawRoundRect(barBounds, barRadius, barRadius, barBorderPaint);
+    }
+}
@@ -0,0 +1,164 @@
+// TimingWheel.java
+package com.example.pulseblocks;
+
+/**
+ * Rueda de temporización hash sobre ticks de simulación. Cada Timer vive en la casilla
+ * deadline % casillas, en una lista doblemente enlazada, así programar y cancelar son O(1) y
+ * avanzar un tick solo recorre los timers de su casilla. Los plazos más lejanos que una vuelta
+ * comparten casilla con otros y se saltan hasta que llega su tick exacto. Dentro de un mismo
+ * tick los timers vencen en el orden en que se programaron, para que la partida sea
+ * reproducible. No es thread-safe: pertenece al hilo que ejecuta la simulación.
+ */
+class TimingWheel {
+
+    interface Task {
+        void onTimer(long tick);
+    }
+
+    /**
+     * Plazo reutilizable: se programa, vence o se cancela tantas veces como haga falta
+     */
+    static final class Timer {
+        private final Task task;
+        private long deadline;
+        private Timer prev, next;
+        private boolean scheduled = false;
+        private boolean due = false; // Vencido en el tick que se está procesando, aún sin ejecutar
+        private Timer nextDue;
+
+        Timer(Task task) {
+            this.task = task;
+        }
+
+        boolean isScheduled() {
+            return scheduled;
+        }
+
+        long getDeadline() {
+            return deadline;
+        }
+    }
+
+    private final Timer[] heads;
+    private final Timer[] tails;
+    private final int mask;
+    private long currentTick;
+    private int size = 0;
+
+    /**
+     * @param slotCount casillas de la rueda; se redondea a potencia de dos
+     * @param startTick último tick ya procesado
+     */
+    public TimingWheel(int slotCount, long startTick) {
+        int slots = Integer.highestOneBit(Math.max(2, slotCount - 1)) << 1;
+        heads = new Timer[slots];
+        tails = new Timer[slots];
+        mask = slots - 1;
+        currentTick = startTick;
+    }
+
+    /**
+     * Programa el timer para el tick indicado, o para el siguiente sin procesar si ese ya pasó.
+     * Si ya estaba programado se mueve.
+     */
+    public void schedule(Timer timer, long tick) {
+        if (timer.scheduled) cancel(timer);
+
+        timer.deadline = Math.max(tick, currentTick + 1);
+        int slot = (int) (timer.deadline & mask);
+        timer.prev = tails[slot];
+        timer.next = null;
+        if (tails[slot] == null) {
+            heads[slot] = timer;
+        } else {
+            tails[slot].next = timer;
+        }
+        tails[slot] = timer;
+        timer.scheduled = true;
+        size++;
+    }
+
+    public void cancel(Timer timer) {
+        if (!timer.scheduled) return;
+
+        timer.scheduled = false;
+        size--;
+        if (timer.due) {
+            timer.due = false; // Ya está fuera de la casilla; no se ejecutará
+            return;
+        }
+        unlink(timer);
+    }
+
+    private void unlink(Timer timer) {
+        int slot = (int) (timer.deadline & mask);
+        if (timer.prev == null) {
+            heads[slot] = timer.next;
+        } else {
+            timer.prev.next = timer.next;
+        }
+        if (timer.next == null) {
+            tails[slot] = timer.prev;
+        } else {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = timer.next = null;
+    }
+
+    /**
+     * Procesa los ticks pendientes hasta tick incluido, ejecutando los timers que vencen
+     *
+     * @return timers vencidos
+     */
+    public int advanceTo(long tick) {
+        int fired = 0;
+        while (currentTick < tick) {
+            currentTick++;
+            int slot = (int) (currentTick & mask);
+
+            // Sacar primero los vencidos de la casilla, en orden, porque las tareas pueden
+            // programar o cancelar otros timers mientras se ejecutan
+            Timer firstDue = null, lastDue = null;
+            for (Timer timer = heads[slot]; timer != null; ) {
+                Timer next = timer.next;
+                if (timer.deadline == currentTick) {
+                    unlink(timer);
+                    timer.due = true;
+                    timer.nextDue = null;
+                    if (lastDue == null) {
+                        firstDue = timer;
+                    } else {
+                        lastDue.nextDue = timer;
+                    }
+                    lastDue = timer;
+                }
+                timer = next;
+            }
+
+            for (Timer timer = firstDue; timer != null; ) {
+                Timer next = timer.nextDue;
+                timer.nextDue = null;
+                if (timer.due) {
+                    timer.due = false;
+                    timer.scheduled = false;
+                    size--;
+                    timer.task.onTimer(currentTick);
+                    fired++;
+                }
+                timer = next;
+            }
+        }
+        return fired;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Timers programados
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.pulseblocks;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la simulación sin Android: reloj manual, semilla fija y entradas programadas.
+ */
+public class GameSimulationTest {
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int BLOCK_SIZE = SCREEN_WIDTH / 17;
+    private static final int SCREEN_HEIGHT = 1920 - 3 * BLOCK_SIZE;
+
+    private static GameSimulation newSimulation(long seed, ManualClock clock) {
+        return new GameSimulation(SCREEN_WIDTH, SCREEN_HEIGHT, BLOCK_SIZE, seed, clock);
+    }
+
+    /**
+     * Mueve el cañón de lado a lado y dispara cada pocos ticks; solo depende del número de tick
+     */
+    private static void scriptedInput(GameSimulation simulation, long tick) {
+        InputQueue input = simulation.getInput();
+        if (tick % 17 == 0) input.offer(InputQueue.SHOOT);
+        if (tick % 45 == 0) {
+            input.offer((tick / 450) % 2 == 0 ? InputQueue.MOVE_LEFT : InputQueue.MOVE_RIGHT);
+        }
+    }
+
+    private static long runTicks(GameSimulation simulation, ManualClock clock, int ticks) {
+        long hash = 17;
+        for (int i = 0; i < ticks && simulation.isRunning(); i++) {
+            scriptedInput(simulation, simulation.getTickCount());
+            clock.advanceNanos(GameSimulation.TICK_NANOS);
+            simulation.tick();
+            hash = 31 * hash + stateHash(simulation);
+        }
+        return hash;
+    }
+
+    private static long stateHash(GameSimulation simulation) {
+        long hash = simulation.getScore() * 31L + simulation.getCannonGridX();
+        hash = 31 * hash + simulation.getCannonOverheat();
+        hash = 31 * hash + simulation.getParticles().size();
+        for (Block block : simulation.getPlayerBlocks()) {
+            hash = 31 * hash + Float.floatToIntBits(block.y);
+        }
+        for (BlockGroup group : simulation.getFallingGroups()) {
+            for (Block block : group.getBlocks()) {
+                hash = 31 * hash + Float.floatToIntBits(block.x);
+                hash = 31 * hash + Float.floatToIntBits(block.y);
+            }
+        }
+        return hash;
+    }
+
+    @Test
+    public void sameSeedAndInput_replayTheSameGame() {
+        ManualClock clockA = new ManualClock();
+        ManualClock clockB = new ManualClock();
+        GameSimulation a = newSimulation(42, clockA);
+        GameSimulation b = newSimulation(42, clockB);
+
+        long hashA = runTicks(a, clockA, 20_000);
+        long hashB = runTicks(b, clockB, 20_000);
+
+        assertEquals(hashA, hashB);
+        assertEquals(a.getTickCount(), b.getTickCount());
+        assertEquals(a.getScore(), b.getScore());
+        assertEquals(a.isRunning(), b.isRunning());
+    }
+
+    @Test
+    public void withoutInput_groupsReachTheFloorAndGameEnds() {
+        ManualClock clock = new ManualClock();
+        GameSimulation simulation = newSimulation(7, clock);
+        final int[] gameOvers = {0};
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onScoreChanged(int score, int level) {
+                fail("No debería puntuar sin disparar");
+            }
+
+            @Override
+            public void onGameOver(int finalScore) {
+                gameOvers[0]++;
+            }
+        });
+
+        for (int i = 0; i < 100_000 && simulation.isRunning(); i++) {
+            clock.advanceNanos(GameSimulation.TICK_NANOS);
+            simulation.tick();
+        }
+
+        assertFalse(simulation.isRunning());
+        assertEquals(1, gameOvers[0]);
+
+        // Tras el fin de partida los ticks no hacen nada
+        long ticks = simulation.getTickCount();
+        simulation.tick();
+        assertEquals(ticks, simulation.getTickCount());
+    }
+
+    /**
+     * La máscara de bits de cada grupo debe dar los mismos límites y la misma comprobación de
+     * rectángulo que recalcularlos recorriendo sus bloques, en cada tick de la partida
+     */
+    @Test
+    public void replay_groupShapeMatchesItsBlocks() {
+        for (long seed = 0; seed < 40; seed++) {
+            ManualClock clock = new ManualClock();
+            GameSimulation simulation = newSimulation(seed, clock);
+            for (int i = 0; i < 5_000 && simulation.isRunning(); i++) {
+                scriptedInput(simulation, simulation.getTickCount());
+                clock.advanceNanos(GameSimulation.TICK_NANOS);
+                simulation.tick();
+                for (BlockGroup group : simulation.getFallingGroups()) {
+                    assertShapeMatchesBlocks(group);
+                }
+            }
+        }
+    }
+
+    private static void assertShapeMatchesBlocks(BlockGroup group) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (Block block : group.getBlocks()) {
+            minX = Math.min(minX, (int) block.x);
+            minY = Math.min(minY, (int) block.y);
+            maxX = Math.max(maxX, (int) block.x + BLOCK_SIZE);
+            maxY = Math.max(maxY, (int) block.y + BLOCK_SIZE);
+        }
+        assertEquals(minX, group.getMinX());
+        assertEquals(maxX, group.getMaxX());
+        assertEquals(minY, group.getMinY());
+        assertEquals(maxY, group.getBottomY());
+
+        // Rectángulo completo: todas las celdas de los límites tienen algún bloque
+        int columns = (maxX - minX) / BLOCK_SIZE;
+        int rows = (maxY - minY) / BLOCK_SIZE;
+        boolean[][] filled = new boolean[rows][columns];
+        for (Block block : group.getBlocks()) {
+            filled[((int) block.y - minY) / BLOCK_SIZE][((int) block.x - minX) / BLOCK_SIZE] = true;
+        }
+        boolean rectangle = true;
+        for (boolean[] row : filled) {
+            for (boolean cell : row) rectangle &= cell;
+        }
+        assertEquals(rectangle, group.isCompleteRectangle());
+    }
+
+    @Test
+    public void soak_manyGamesStayConsistent() {
+        long totalTicks = 0;
+        for (long seed = 0; totalTicks < 100_000; seed++) {
+            ManualClock clock = new ManualClock();
+            GameSimulation simulation = newSimulation(seed, clock);
+            runTicks(simulation, clock, 50_000);
+            totalTicks += simulation.getTickCount();
+
+            assertTrue(simulation.getParticles().size() <= simulation.getParticles().capacity());
+            assertTrue(simulation.getCannonOverheat() >= 0);
+            assertTrue(simulation.getCannonGridX() >= 0);
+            assertTrue(simulation.getCannonGridX() < simulation.getGridWidth());
+            assertEquals(simulation.getScore() / 500 + (simulation.getScore() > 0 ? 1 : 0),
+                    simulation.getLevel());
+
+            // Cada bloque creado por el pool está en uso o libre, ninguno se pierde
+            int inUse = simulation.getPlayerBlocks().size();
+            for (BlockGroup group : simulation.getFallingGroups()) inUse += group.getBlockCount();
+            for (BlockGroup group : simulation.getDissolvingGroups()) inUse += group.getBlockCount();
+            ObjectPool<Block> pool = simulation.getBlockPool();
+            assertEquals(pool.created(), inUse + pool.available());
+        }
+    }
+
+    // Formas para colocar grupos a mano: matrix[x][y], columnas de izquierda a derecha
+    private static final int[][] SINGLE = {{1}};
+    private static final int[][] COLUMN_OF_TWO = {{1, 1}};
+    private static final int[][] COLUMN_OF_THREE = {{1, 1, 1}};
+
+    private static void tick(GameSimulation simulation, ManualClock clock) {
+        clock.advanceNanos(GameSimulation.TICK_NANOS);
+        simulation.tick();
+    }
+
+    /**
+     * Dispara desde la columna del cañón y avanza hasta que el disparo se pega a un grupo
+     */
+    private static void shootUntilLanded(GameSimulation simulation, ManualClock clock) {
+        simulation.getInput().offer(InputQueue.SHOOT);
+        tick(simulation, clock);
+        assertEquals(1, simulation.getPlayerBlocks().size());
+        Block shot = simulation.getPlayerBlocks().get(0);
+        for (int i = 0; i < 300 && !simulation.getPlayerBlocks().isEmpty(); i++) {
+            tick(simulation, clock);
+        }
+        assertTrue(simulation.getPlayerBlocks().isEmpty());
+        assertTrue(shot.y > 0); // Se ha pegado, no ha salido por arriba
+    }
+
+    /**
+     * Todas las celdas de los bloques del grupo se resuelven al propio grupo en el mapa
+     */
+    private static void assertCellsResolveTo(GameSimulation simulation, BlockGroup group) {
+        OccupancyGrid grid = simulation.getOccupancyGrid();
+        for (Block block : group.getBlocks()) {
+            assertSame(group, grid.groupAt(grid.columnOf(block.x), grid.rowOf(block.y)));
+        }
+    }
+
+    /**
+     * El disparo se pega bajo un grupo y junto a otro: quedan unidos en uno en forma de L
+     * que, a diferencia del grupo tocado más el disparo, no es un rectángulo
+     */
+    @Test
+    public void shotBridgingTwoGroups_mergesThemIntoOne() {
+        ManualClock clock = new ManualClock();
+        GameSimulation simulation = newSimulation(3, clock);
+        int column = simulation.getCannonGridX();
+        BlockGroup hit = simulation.addGroup(SINGLE, column, 14, clock.nowMillis());
+        BlockGroup side = simulation.addGroup(SINGLE, column + 1, 15, clock.nowMillis());
+
+        shootUntilLanded(simulation, clock);
+
+        List<BlockGroup> falling = simulation.getFallingGroups();
+        assertTrue(falling.contains(hit));
+        assertFalse(falling.contains(side));
+        assertEquals(3, hit.getBlockCount());
+        assertEquals(0, side.getBlockCount());
+        assertShapeMatchesBlocks(hit);
+
+        // La comprobación de rectángulo se hace sobre la forma unida
+        assertFalse(hit.isCompleteRectangle());
+        assertTrue(simulation.getDissolvingGroups().isEmpty());
+        assertEquals(0, simulation.getScore());
+    }
+
+    @Test
+    public void shotCompletingARectangleAcrossTwoGroups_completesTheMergedGroup() {
+        ManualClock clock = new ManualClock();
+        GameSimulation simulation = newSimulation(3, clock);
+        int column = simulation.getCannonGridX();
+        BlockGroup hit = simulation.addGroup(SINGLE, column, 14, clock.nowMillis());
+        BlockGroup side = simulation.addGroup(COLUMN_OF_TWO, column + 1, 14, clock.nowMillis());
+
+        shootUntilLanded(simulation, clock);
+
+        assertFalse(simulation.getFallingGroups().contains(hit));
+        assertFalse(simulation.getFallingGroups().contains(side));
+        assertEquals(1, simulation.getDissolvingGroups().size());
+        assertSame(hit, simulation.getDissolvingGroups().get(0));
+        assertEquals(4, hit.getBlockCount());
+        assertEquals(40, simulation.getScore());
+
+        // Sus celdas, también las que eran del grupo absorbido, han quedado libres: al reutilizar
+        // los ids en grupos nuevos ninguna celda antigua se resuelve a ellos
+        simulation.addGroup(SINGLE, 1, 5, clock.nowMillis());
+        simulation.addGroup(SINGLE, 3, 5, clock.nowMillis());
+        assertGridMatchesBlocks(simulation);
+    }
+
+    /**
+     * Cada celda ocupada pertenece a un grupo que cae y que tiene un bloque en ella
+     */
+    private static void assertGridMatchesBlocks(GameSimulation simulation) {
+        OccupancyGrid grid = simulation.getOccupancyGrid();
+        for (int c = 0; c < simulation.getGridWidth(); c++) {
+            for (int r = 0; r < simulation.getGridHeight(); r++) {
+                BlockGroup owner = grid.groupAt(c, r);
+                if (owner == null) continue;
+                assertTrue(simulation.getFallingGroups().contains(owner));
+                boolean hasBlock = false;
+                for (Block block : owner.getBlocks()) {
+                    hasBlock |= grid.columnOf(block.x) == c && grid.rowOf(block.y) == r;
+                }
+                assertTrue(hasBlock);
+            }
+        }
+    }
+
+    /**
+     * El grupo con más bloques absorbe al tocado: el absorbido vuelve al pool y todas las
+     * celdas, también las que tenían su id, se resuelven al superviviente
+     */
+    @Test
+    public void mergedGroup_recyclesTheAbsorbedGroupAndKeepsItsCells() {
+        ManualClock clock = new ManualClock();
+        GameSimulation simulation = newSimulation(3, clock);
+        int column = simulation.getCannonGridX();
+        BlockGroup hit = simulation.addGroup(SINGLE, column, 14, clock.nowMillis());
+        BlockGroup side = simulation.addGroup(COLUMN_OF_THREE, column + 1, 13, clock.nowMillis());
+        int freeGroups = simulation.getGroupPool().available();
+
+        shootUntilLanded(simulation, clock);
+
+        assertFalse(simulation.getFallingGroups().contains(hit));
+        assertTrue(simulation.getFallingGroups().contains(side));
+        assertEquals(freeGroups + 1, simulation.getGroupPool().available());
+        assertFalse(hit.stepTimer.isScheduled()); // Ya no da pasos por su cuenta
+        assertEquals(0, hit.getBlockCount());
+        assertEquals(5, side.getBlockCount());
+        assertCellsResolveTo(simulation, side);
+        assertShapeMatchesBlocks(side);
+    }
+
+    /**
+     * El grupo absorbido sale del pool con un id nuevo: ni sus celdas ni las del grupo unido
+     * se confunden, tampoco después de que ambos bajen un paso
+     */
+    @Test
+    public void recycledGroup_doesNotAliasTheMergedGroup() {
+        ManualClock clock = new ManualClock();
+        GameSimulation simulation = newSimulation(3, clock);
+        int column = simulation.getCannonGridX();
+        BlockGroup hit = simulation.addGroup(SINGLE, column, 14, clock.nowMillis());
+        BlockGroup side = simulation.addGroup(COLUMN_OF_THREE, column + 1, 13, clock.nowMillis());
+        shootUntilLanded(simulation, clock);
+
+        BlockGroup reused = simulation.addGroup(COLUMN_OF_TWO, 1, 10, clock.nowMillis());
+        assertSame(hit, reused);
+        assertCellsResolveTo(simulation, side);
+        assertCellsResolveTo(simulation, reused);
+
+        float sideY = side.getBlocks().get(0).y;
+        float reusedY = reused.getBlocks().get(0).y;
+        for (int i = 0; i < 120 && side.getBlocks().get(0).y == sideY; i++) {
+            tick(simulation, clock);
+        }
+        assertTrue(simulation.isRunning());
+        assertEquals(sideY + BLOCK_SIZE, side.getBlocks().get(0).y, 0f);
+        assertEquals(reusedY + BLOCK_SIZE, reused.getBlocks().get(0).y, 0f);
+        assertEquals(5, side.getBlockCount());
+        assertCellsResolveTo(simulation, side);
+        assertCellsResolveTo(simulation, reused);
+    }
+}
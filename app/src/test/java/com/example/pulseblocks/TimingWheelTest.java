@@ -0,0 +1,139 @@
+package com.example.pulseblocks;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la rueda de temporización: orden de vencimiento, vueltas completas y reentrada
+ * desde las propias tareas.
+ */
+public class TimingWheelTest {
+
+    /**
+     * Timer que apunta en log "nombre@tick" cada vez que vence
+     */
+    private static TimingWheel.Timer recording(List<String> log, String name) {
+        return new TimingWheel.Timer(tick -> log.add(name + "@" + tick));
+    }
+
+    @Test
+    public void deadlinesWrapAroundTheSlots() {
+        List<String> log = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(8, 5);
+        wheel.schedule(recording(log, "a"), 7);
+        wheel.schedule(recording(log, "b"), 9);  // Casilla 1, tras dar la vuelta
+        wheel.schedule(recording(log, "c"), 12); // Casilla 4
+
+        assertEquals(1, wheel.advanceTo(8));
+        assertEquals("[a@7]", log.toString());
+        assertEquals(2, wheel.advanceTo(20));
+        assertEquals("[a@7, b@9, c@12]", log.toString());
+        assertEquals(0, wheel.size());
+        assertEquals(20, wheel.getCurrentTick());
+    }
+
+    @Test
+    public void delaysLongerThanOneRevolution_waitForTheirExactTick() {
+        List<String> log = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(8, 0);
+        wheel.schedule(recording(log, "near"), 3);
+        wheel.schedule(recording(log, "far"), 3 + 8 * 3); // Misma casilla, tres vueltas después
+
+        assertEquals(1, wheel.advanceTo(26));
+        assertEquals("[near@3]", log.toString());
+        assertEquals(1, wheel.size());
+
+        assertEquals(1, wheel.advanceTo(27));
+        assertEquals("[near@3, far@27]", log.toString());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void sameTick_firesInScheduleOrder() {
+        List<String> log = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(4, 0);
+        for (int i = 0; i < 5; i++) {
+            wheel.schedule(recording(log, "t" + i), 10);
+        }
+        wheel.advanceTo(10);
+        assertEquals("[t0@10, t1@10, t2@10, t3@10, t4@10]", log.toString());
+    }
+
+    @Test
+    public void cancellingFromAnotherCallback_preventsADueTimer() {
+        List<String> log = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(16, 0);
+        TimingWheel.Timer victim = recording(log, "victim");
+        TimingWheel.Timer later = recording(log, "later");
+        TimingWheel.Timer killer = new TimingWheel.Timer(tick -> {
+            log.add("killer@" + tick);
+            wheel.cancel(victim); // Vence en este mismo tick, ya fuera de su casilla
+            wheel.cancel(later);  // Aún en la rueda
+        });
+        wheel.schedule(killer, 4);
+        wheel.schedule(victim, 4);
+        wheel.schedule(later, 9);
+
+        assertEquals(1, wheel.advanceTo(20));
+        assertEquals("[killer@4]", log.toString());
+        assertFalse(victim.isScheduled());
+        assertFalse(later.isScheduled());
+        assertEquals(0, wheel.size());
+
+        // Cancelado así, el timer se puede volver a programar con normalidad
+        wheel.schedule(victim, 22);
+        assertEquals(1, wheel.advanceTo(25));
+        assertEquals("[killer@4, victim@22]", log.toString());
+    }
+
+    @Test
+    public void reschedulingFromItsOwnCallback_repeatsOnTheNextDeadline() {
+        List<String> log = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(8, 0);
+        TimingWheel.Timer[] self = new TimingWheel.Timer[1];
+        self[0] = new TimingWheel.Timer(tick -> {
+            log.add("step@" + tick);
+            if (log.size() < 4) wheel.schedule(self[0], tick + 5);
+        });
+        wheel.schedule(self[0], 2);
+
+        assertEquals(4, wheel.advanceTo(100));
+        assertEquals("[step@2, step@7, step@12, step@17]", log.toString());
+        assertFalse(self[0].isScheduled());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void reschedulingForTheCurrentTick_movesToTheNextOne() {
+        List<String> log = new ArrayList<>();
+        TimingWheel wheel = new TimingWheel(8, 0);
+        TimingWheel.Timer[] self = new TimingWheel.Timer[1];
+        self[0] = new TimingWheel.Timer(tick -> {
+            log.add("again@" + tick);
+            if (log.size() < 2) wheel.schedule(self[0], tick); // Ese tick ya se está procesando
+        });
+        wheel.schedule(self[0], 3);
+
+        wheel.advanceTo(10);
+        assertEquals("[again@3, again@4]", log.toString());
+    }
+
+    @Test
+    public void ticksBefore_neverPassesTheDeadline() {
+        for (long millis = 17; millis <= 120_000; millis++) {
+            long ticks = GameSimulation.ticksBefore(millis);
+            long nanos = millis * 1_000_000L;
+            // Al vencer no se ha pasado el plazo, y un tick más ya lo cumple
+            assertTrue(ticks * GameSimulation.TICK_NANOS <= nanos);
+            assertTrue((ticks + 1) * GameSimulation.TICK_NANOS > nanos);
+        }
+        // Plazos de menos de un tick: el siguiente tick, donde se confirman con el reloj
+        for (long millis = 0; millis < 17; millis++) {
+            assertEquals(1, GameSimulation.ticksBefore(millis));
+        }
+    }
+}
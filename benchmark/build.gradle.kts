@@ -0,0 +1,49 @@
+// Benchmarks JMH de la simulación (JVM pura, sin Android).
+// Ejecutar con: ./gradlew :benchmark:jmh  ->  build/results/jmh/results.json
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+// Compila directamente las clases sin dependencias de Android del módulo app, así los
+// benchmarks miden exactamente el mismo código que se distribuye.
+sourceSets {
+    main {
+        java {
+            setSrcDirs(listOf("../app/src/main/java"))
+            include(
+                "com/example/pulseblocks/AmbientWave.java",
+                "com/example/pulseblocks/Block.java",
+                "com/example/pulseblocks/BlockGroup.java",
+                "com/example/pulseblocks/GameClock.java",
+                "com/example/pulseblocks/GameSimulation.java",
+                "com/example/pulseblocks/InputQueue.java",
+                "com/example/pulseblocks/ManualClock.java",
+                "com/example/pulseblocks/ObjectPool.java",
+                "com/example/pulseblocks/OccupancyGrid.java",
+                "com/example/pulseblocks/ParticleSystem.java",
+                "com/example/pulseblocks/ScorePopup.java",
+                "com/example/pulseblocks/ScoreTextCache.java",
+                "com/example/pulseblocks/TimingWheel.java"
+            )
+        }
+    }
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
@@ -0,0 +1,92 @@
+// BlockGroupBenchmark.java
+package com.example.pulseblocks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de BlockGroup que se hacen cada tick o en cada impacto, sobre un grupo
+ * rectangular de side x side bloques. side llega hasta las 64 columnas que admite la máscara
+ * de forma del grupo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class BlockGroupBenchmark {
+    private static final int BLOCK_SIZE = 60;
+
+    @Param({"2", "8", "16", "32", "64"})
+    public int side;
+
+    private OccupancyGrid grid;
+    private BlockGroup group;
+    private Block hitShot;  // Tocando por debajo la columna central del grupo
+    private Block missShot; // En la columna vacía a la derecha del grupo
+
+    @Setup
+    public void setUp() {
+        grid = new OccupancyGrid(side + 1, side + 2, 0, 0, BLOCK_SIZE);
+        group = new BlockGroup(grid);
+        for (int column = 0; column < side; column++) {
+            for (int row = 0; row < side; row++) {
+                group.addBlock(new Block(column * BLOCK_SIZE, row * BLOCK_SIZE, BLOCK_SIZE, GameSimulation.COLOR_GROUP));
+            }
+        }
+        hitShot = new Block((side / 2) * BLOCK_SIZE, side * BLOCK_SIZE - 10, BLOCK_SIZE, GameSimulation.COLOR_PLAYER);
+        missShot = new Block(side * BLOCK_SIZE, side * BLOCK_SIZE - 10, BLOCK_SIZE, GameSimulation.COLOR_PLAYER);
+
+        // Que el fixture no mida en silencio el caso contrario al que dice
+        if (!group.checkCollision(hitShot) || grid.findCollision(hitShot) != group) {
+            throw new IllegalStateException("hitShot no toca el grupo");
+        }
+        if (group.checkCollision(missShot) || grid.findCollision(missShot) != null) {
+            throw new IllegalStateException("missShot toca el grupo");
+        }
+    }
+
+    @Benchmark
+    public boolean checkCollisionHit() {
+        return group.checkCollision(hitShot);
+    }
+
+    @Benchmark
+    public boolean checkCollisionMiss() {
+        return group.checkCollision(missShot);
+    }
+
+    @Benchmark
+    public BlockGroup occupancyFindCollision() {
+        return grid.findCollision(hitShot);
+    }
+
+    @Benchmark
+    public Block getClosestBlock() {
+        return group.getClosestBlock(hitShot);
+    }
+
+    @Benchmark
+    public boolean isRectangularShape() {
+        return group.isRectangularShape();
+    }
+
+    @Benchmark
+    public int getBottomY() {
+        return group.getBottomY();
+    }
+
+    @Benchmark
+    public int updateBounds() {
+        group.updateBounds();
+        return group.getBottomY();
+    }
+}
@@ -0,0 +1,58 @@
+// GameSimulationBenchmark.java
+package com.example.pulseblocks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick completo de la simulación con entradas programadas (disparos y movimientos del
+ * cañón). Al terminar una partida se empieza otra con la semilla
+ * siguiente, así la medida cubre todo el ciclo de vida de los grupos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class GameSimulationBenchmark {
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int BLOCK_SIZE = SCREEN_WIDTH / 17;
+    private static final int SCREEN_HEIGHT = 1920 - 3 * BLOCK_SIZE;
+
+    private ManualClock clock;
+    private GameSimulation simulation;
+    private long seed = 0;
+
+    @Setup
+    public void setUp() {
+        newGame();
+    }
+
+    private void newGame() {
+        clock = new ManualClock();
+        simulation = new GameSimulation(SCREEN_WIDTH, SCREEN_HEIGHT, BLOCK_SIZE, seed++, clock);
+    }
+
+    @Benchmark
+    public long tick() {
+        if (!simulation.isRunning()) newGame();
+
+        long tick = simulation.getTickCount();
+        InputQueue input = simulation.getInput();
+        if (tick % 17 == 0) input.offer(InputQueue.SHOOT);
+        if (tick % 45 == 0) {
+            input.offer((tick / 450) % 2 == 0 ? InputQueue.MOVE_LEFT : InputQueue.MOVE_RIGHT);
+        }
+
+        clock.advanceNanos(GameSimulation.TICK_NANOS);
+        simulation.tick();
+        return simulation.getTickCount();
+    }
+}
@@ -0,0 +1,38 @@
+// MatrixBlockGeneratorBenchmark.java
+package com.example.pulseblocks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación de la forma de un grupo nuevo; el tamaño crece con el nivel (2 + level).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class MatrixBlockGeneratorBenchmark {
+    @Param({"2", "4", "6", "10"})
+    public int size;
+
+    private GameSimulation simulation;
+
+    @Setup
+    public void setUp() {
+        simulation = new GameSimulation(1080, 1700, 63, 1, new ManualClock());
+    }
+
+    @Benchmark
+    public int[][] matrixBlockGenerator() {
+        return simulation.matrixBlockGenerator(size, size);
+    }
+}
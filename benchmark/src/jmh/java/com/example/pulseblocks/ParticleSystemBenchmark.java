@@ -0,0 +1,62 @@
+// ParticleSystemBenchmark.java
+package com.example.pulseblocks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Un tick de ParticleSystem con una población estable: las partículas que mueren se
+ * reponen, como haría un emisor continuo, para que el tamaño no degenere a valores
+ * subnormales durante la medida.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class ParticleSystemBenchmark {
+    private static final int TICK_MILLIS = 16;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int count;
+
+    private ParticleSystem particles;
+    private final Random random = new Random(1);
+    private long now;
+
+    @Setup
+    public void setUp() {
+        particles = new ParticleSystem(count);
+        now = 0;
+        refill();
+    }
+
+    private void refill() {
+        while (particles.size() < count) {
+            float angle = random.nextFloat() * (float) Math.PI * 2;
+            float speed = 2 + random.nextFloat() * 5;
+            particles.spawn(540, 960,
+                    (float) Math.cos(angle) * speed,
+                    (float) Math.sin(angle) * speed,
+                    GameSimulation.COLOR_SPARK, 500 + random.nextInt(500),
+                    3 + random.nextFloat() * 4, now);
+        }
+    }
+
+    @Benchmark
+    public int update() {
+        now += TICK_MILLIS;
+        particles.update(now);
+        refill();
+        return particles.size();
+    }
+}